@@ -0,0 +1,63 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.model.Customer;
+import Stock_Inventory.model.Order;
+import Stock_Inventory.model.OrderItem;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.Product;
+import Stock_Inventory.model.Stock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic in-memory fixtures shared by the benchmarks; nothing here touches a database.
+final class BenchmarkData {
+
+    static final int ITEMS_PER_ORDER = 5;
+
+    private BenchmarkData() {
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new Product((long) i + 1, "Product " + i, "Description of product " + i, 1.0 + (i % 500) * 0.25, i % 100, 0L, null));
+        }
+        return products;
+    }
+
+    static List<Stock> stocks(int count) {
+        List<Product> products = products(count);
+        List<Stock> stocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stocks.add(new Stock((long) i + 1, products.get(i), i % 100, 5, null, 0L, null));
+        }
+        return stocks;
+    }
+
+    static Order order(long orderId, int itemCount, List<Product> products) {
+        Customer customer = new Customer(orderId % 1000 + 1, "First", "Last", "customer" + orderId + "@example.com", null, null);
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomer(customer);
+        order.setOrderDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        order.setStatus(OrderStatus.PENDING);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Product product = products.get((int) ((orderId + i) % products.size()));
+            items.add(new OrderItem(orderId * itemCount + i, product, order, 1 + i % 3, product.getPrice()));
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+
+    static List<Order> orders(int count) {
+        List<Product> products = products(Math.min(count, 1000));
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(order(i + 1, ITEMS_PER_ORDER, products));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,56 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OrderResponseDTO;
+import Stock_Inventory.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of the list responses returned by GET /api/orders and GET /api/products,
+ * with the same date handling Spring Boot configures. Output goes to a null stream so only the
+ * serializer is measured, not buffer growth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<OrderResponseDTO> orders;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        OrderService orderService = new OrderService();
+        orders = BenchmarkData.orders(size).stream().map(orderService::convertToDto).collect(Collectors.toList());
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public void serializeOrderResponses() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), orders);
+    }
+
+    @Benchmark
+    public void serializeProducts() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), products);
+    }
+}
@@ -0,0 +1,84 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.StockInventoryApplication;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OrderResponseDTO;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.model.Customer;
+import Stock_Inventory.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.createOrder end to end for one order with {@code lines} lines, against an in-memory
+ * H2 database in MySQL mode. {@code batchSize=1} switches JDBC batching off, i.e. one INSERT round
+ * trip per row as with IDENTITY keys. H2 runs in-process, so real network round trips to MySQL
+ * make the gap larger than measured here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCreationBenchmark {
+
+    @Param({"40"})
+    private int lines;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderCreateRequest request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(StockInventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run( // Command-line arguments, so they win over any application.properties on the classpath
+                        "--spring.datasource.url=jdbc:h2:mem:order-creation-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        ProductService productService = context.getBean(ProductService.class);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Bench");
+        customer.setLastName("Mark");
+        customer.setEmail("bench.mark@example.com");
+        Long customerId = context.getBean(CustomerRepository.class).save(customer).getCustomerId();
+
+        List<OrderCreateRequest.OrderItemRequest> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            ProductCreateRequest product = new ProductCreateRequest();
+            product.setName("Product " + i);
+            product.setPrice(1.0 + i);
+            product.setStockLevel(1_000_000_000);
+            items.add(new OrderCreateRequest.OrderItemRequest(productService.createProduct(product).getProductId(), 1));
+        }
+        request = new OrderCreateRequest(customerId, items);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO createOrder() {
+        return orderService.createOrder(request);
+    }
+}
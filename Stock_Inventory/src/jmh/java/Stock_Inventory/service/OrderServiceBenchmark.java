@@ -0,0 +1,49 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OrderResponseDTO;
+import Stock_Inventory.model.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.convertToDto over a list of orders (5 lines each), and
+ * Order.calculateTotalAmount on a single order with {@code size} lines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private OrderService orderService;
+    private List<Order> orders;
+    private Order largeOrder;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderService();
+        orders = BenchmarkData.orders(size);
+        largeOrder = BenchmarkData.order(1, size, BenchmarkData.products(1000));
+    }
+
+    @Benchmark
+    public void convertToDto(Blackhole blackhole) {
+        for (Order order : orders) {
+            OrderResponseDTO dto = orderService.convertToDto(order);
+            blackhole.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public Double calculateTotalAmount() {
+        return largeOrder.calculateTotalAmount();
+    }
+}
@@ -0,0 +1,95 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.StockInventoryApplication;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.model.Stock;
+import Stock_Inventory.repository.StockRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taking one unit of stock under contention, one transaction per decrement, against an in-memory
+ * H2 database in MySQL mode: the guarded {@code UPDATE ... WHERE quantity >= ?} that orders use
+ * now, against the read-check-save sequence it replaced. The unlocked read-check-save oversold (and
+ * now fails on the stock version), so it is measured in its correct form, with the row read
+ * {@code FOR UPDATE}. {@code products} spreads the threads over that many stock rows; 1 is a
+ * single hot product. Orders per second are the reported ops/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockDecrementBenchmark {
+
+    @Param({"1", "64"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private StockRepository stockRepository;
+    private TransactionTemplate transactionTemplate;
+    private long[] productIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(StockInventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run( // Command-line arguments, so they win over any application.properties on the classpath
+                        "--spring.datasource.url=jdbc:h2:mem:stock-decrement-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        stockRepository = context.getBean(StockRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        ProductService productService = context.getBean(ProductService.class);
+
+        productIds = new long[products];
+        for (int i = 0; i < products; i++) {
+            ProductCreateRequest product = new ProductCreateRequest();
+            product.setName("Product " + i);
+            product.setPrice(1.0 + i);
+            product.setStockLevel(1_000_000_000);
+            productIds[i] = productService.createProduct(product).getProductId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer guardedUpdate() {
+        long productId = nextProduct();
+        return transactionTemplate.execute(status -> stockRepository.decrementQuantity(productId, 1));
+    }
+
+    @Benchmark
+    public Integer lockedReadModifyWrite() {
+        long productId = nextProduct();
+        return transactionTemplate.execute(status -> {
+            Stock stock = stockRepository.findAndLockByProductIds(List.of(productId)).get(0);
+            if (stock.getQuantity() < 1) {
+                throw new IllegalArgumentException("Insufficient stock for product id " + productId);
+            }
+            stock.setQuantity(stock.getQuantity() - 1);
+            return stock.getQuantity(); // Written back by the flush at commit
+        });
+    }
+
+    private long nextProduct() {
+        return productIds[ThreadLocalRandom.current().nextInt(products)];
+    }
+}
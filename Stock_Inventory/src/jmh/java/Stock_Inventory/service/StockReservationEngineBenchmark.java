@@ -0,0 +1,87 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.StockInventoryApplication;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.repository.StockRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserving one unit of stock under contention: the in-memory striped engine (with its
+ * write-behind flush running) against the guarded JPA decrement, one transaction per call, on an
+ * in-memory H2 database in MySQL mode. {@code products} spreads the threads over that many stock
+ * rows; 1 is a single hot product. H2 runs in-process, so a real MySQL round trip widens the gap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockReservationEngineBenchmark {
+
+    @Param({"1", "64"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private StockReservationEngine stockEngine;
+    private StockRepository stockRepository;
+    private TransactionTemplate transactionTemplate;
+    private long[] productIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(StockInventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run( // Command-line arguments, so they win over any application.properties on the classpath
+                        "--spring.datasource.url=jdbc:h2:mem:stock-engine-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--inventory.engine.in-memory.enabled=true",
+                        "--logging.level.root=WARN");
+        stockEngine = context.getBean(StockReservationEngine.class);
+        stockRepository = context.getBean(StockRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        ProductService productService = context.getBean(ProductService.class);
+
+        productIds = new long[products];
+        for (int i = 0; i < products; i++) {
+            ProductCreateRequest product = new ProductCreateRequest();
+            product.setName("Product " + i);
+            product.setPrice(1.0 + i);
+            product.setStockLevel(1_000_000_000);
+            productIds[i] = productService.createProduct(product).getProductId();
+        }
+        stockEngine.reload();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean engineReserve() {
+        return stockEngine.tryAdjust(nextProduct(), -1);
+    }
+
+    @Benchmark
+    public Integer jpaGuardedDecrement() {
+        long productId = nextProduct();
+        return transactionTemplate.execute(status -> stockRepository.decrementQuantity(productId, 1));
+    }
+
+    private long nextProduct() {
+        return productIds[ThreadLocalRandom.current().nextInt(products)];
+    }
+}
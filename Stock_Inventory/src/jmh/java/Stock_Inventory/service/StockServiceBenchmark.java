@@ -0,0 +1,37 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.model.Stock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// StockService.convertToDto over a list of stock rows (in-memory engine disabled).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private StockService stockService;
+    private List<Stock> stocks;
+
+    @Setup
+    public void setUp() {
+        stockService = new StockService();
+        stocks = BenchmarkData.stocks(size);
+    }
+
+    @Benchmark
+    public void convertToDto(Blackhole blackhole) {
+        for (Stock stock : stocks) {
+            blackhole.consume(stockService.convertToDto(stock));
+        }
+    }
+}
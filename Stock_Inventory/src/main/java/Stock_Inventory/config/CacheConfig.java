@@ -0,0 +1,39 @@
+package Stock_Inventory.config;
+
+import Stock_Inventory.service.ProductCatalogCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bounded Caffeine caches. Stats are recorded so Micrometer publishes cache.gets (hit/miss),
+ * cache.puts, cache.evictions and cache.size per cache on /actuator/metrics and /actuator/prometheus.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${inventory.cache.products.max-size:10000}") long productsMaxSize,
+            @Value("${inventory.cache.products.ttl-seconds:600}") long productsTtlSeconds,
+            @Value("${inventory.cache.product-pages.max-size:200}") long pagesMaxSize,
+            @Value("${inventory.cache.product-pages.ttl-seconds:60}") long pagesTtlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ProductCatalogCache.PRODUCTS, Caffeine.newBuilder()
+                .maximumSize(productsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(productsTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ProductCatalogCache.PRODUCT_PAGES, Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(pagesTtlSeconds))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/Stock_Inventory/controller/CustomerController.java
 package Stock_Inventory.controller;
 
+import Stock_Inventory.dto.CursorPage;
 import Stock_Inventory.dto.CustomerRequest;
 import Stock_Inventory.model.Customer;
 import Stock_Inventory.service.CustomerService;
@@ -10,8 +11,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/customers")
 public class CustomerController {
@@ -25,9 +24,15 @@ public class CustomerController {
         return new ResponseEntity<>(customer, HttpStatus.CREATED);
     }
 
+    /**
+     * Keyset-paginated list, ordered by id. Pass the returned {@code next} as {@code after}
+     * to fetch the following page; {@code limit} defaults to 100 and is capped at 1000.
+     */
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        List<Customer> customers = customerService.getAllCustomers();
+    public ResponseEntity<CursorPage<Customer>> getAllCustomers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Customer> customers = customerService.getCustomerPage(CursorPage.after(after), CursorPage.limit(limit));
         return new ResponseEntity<>(customers, HttpStatus.OK);
     }
 
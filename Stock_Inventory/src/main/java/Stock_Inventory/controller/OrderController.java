@@ -1,17 +1,37 @@
 package Stock_Inventory.controller;
 
+import Stock_Inventory.dto.AsyncOrderStatusDTO;
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.OrderBatchResultDTO;
 import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OrderFilter;
 import Stock_Inventory.dto.OrderResponseDTO;
 import Stock_Inventory.model.OrderStatus; // <--- IMPORTANT: Reverted to top-level import
+import Stock_Inventory.service.AsyncOrderService;
+import Stock_Inventory.service.ConcurrencyRetry;
 import Stock_Inventory.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,11 +40,46 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    @Autowired
+    private AsyncOrderService asyncOrderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.order-batch.max-size:1000}")
+    private int maxBatchSize;
+
+    /**
+     * Creates an order. Clients may send an Idempotency-Key header; a retry with the same key
+     * returns the original order (200) instead of placing and deducting stock a second time.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponseDTO> createOrder(@Valid @RequestBody OrderCreateRequest request) {
+    public ResponseEntity<OrderResponseDTO> createOrder(@Valid @RequestBody OrderCreateRequest request,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+                return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+            }
+            Optional<OrderResponseDTO> previous = orderService.findByIdempotencyKey(idempotencyKey);
+            if (previous.isPresent()) {
+                return new ResponseEntity<>(previous.get(), HttpStatus.OK);
+            }
+        }
         try {
-            OrderResponseDTO orderDTO = orderService.createOrder(request);
+            OrderResponseDTO orderDTO = concurrencyRetry.execute("createOrder",
+                    () -> orderService.createOrder(request, idempotencyKey));
             return new ResponseEntity<>(orderDTO, HttpStatus.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key committed first; answer with its order.
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            return orderService.findByIdempotencyKey(idempotencyKey)
+                    .map(order -> new ResponseEntity<>(order, HttpStatus.OK))
+                    .orElseThrow(() -> e);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
         } catch (IllegalArgumentException e) {
@@ -32,12 +87,100 @@ public class OrderController {
         }
     }
 
+    /**
+     * Bulk ingestion: creates every order in the list in one transaction and reports an
+     * outcome per order instead of failing the whole batch. Lists longer than
+     * {@code inventory.order-batch.max-size} are rejected with 400; split them client-side.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderBatchResultDTO>> createOrders(@RequestBody List<OrderCreateRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // One transaction must not lock unbounded stock rows
+        }
+        return ResponseEntity.ok(concurrencyRetry.execute("createOrders", () -> orderService.createOrders(requests)));
+    }
+
+    /**
+     * Async mode: validates and queues the order, then returns 202 with a tracking id right away.
+     * Poll GET /api/orders/async/{trackingId} for the outcome. Returns 503 when the queue is full.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<AsyncOrderStatusDTO> createOrderAsync(@Valid @RequestBody OrderCreateRequest request) {
+        try {
+            AsyncOrderStatusDTO status = asyncOrderService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/async/" + status.getTrackingId()))
+                    .body(status);
+        } catch (RejectedExecutionException e) {
+            return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<AsyncOrderStatusDTO> getAsyncOrderStatus(@PathVariable String trackingId) {
+        return asyncOrderService.getStatus(trackingId)
+                .map(status -> new ResponseEntity<>(status, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Keyset-paginated list, ordered by id. Pass the returned {@code next} as {@code after}
+     * to fetch the following page; {@code limit} defaults to 100 and is capped at 1000.
+     * With {@code includeItems=false} only the order headers (with their stored totals) are read.
+     * Filtering by {@code customerId}, {@code status} and/or an ISO {@code from}/{@code to} range
+     * (from inclusive, to exclusive) orders the pages by orderDate instead; the next page then also
+     * needs the returned {@code nextKey} (the last item's orderDate) as {@code afterDate}.
+     */
     @GetMapping
-    public ResponseEntity<List<OrderResponseDTO>> getAllOrders() {
-        List<OrderResponseDTO> orders = orderService.getAllOrders();
+    public ResponseEntity<CursorPage<OrderResponseDTO>> getAllOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "true") boolean includeItems) {
+        OrderFilter filter = new OrderFilter(customerId, status, from, to);
+        if (filter.isEmpty()) {
+            if (afterDate != null) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Unfiltered pages are ordered by id alone
+            }
+            CursorPage<OrderResponseDTO> orders = orderService.getOrderPage(CursorPage.after(after), CursorPage.limit(limit), includeItems);
+            return new ResponseEntity<>(orders, HttpStatus.OK);
+        }
+        if ((afterDate == null) != (after == null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // The cursor is the pair
+        }
+        CursorPage<OrderResponseDTO> orders = orderService.getOrderPage(filter, afterDate, after, CursorPage.limit(limit), includeItems);
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
+    /**
+     * Streams every order as NDJSON, one OrderResponseDTO per line, for bulk consumers such as the
+     * nightly reconciliation. Rows are written as they are read, so the full list is never held in memory.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        ObjectWriter writer = objectMapper.writerFor(OrderResponseDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            try {
+                orderService.exportOrders(order -> {
+                    try {
+                        writer.writeValue(out, order);
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Usually the client hanging up; this also aborts the read
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponseDTO> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
@@ -54,6 +197,9 @@ public class OrderController {
             return ResponseEntity.ok(updatedOrder);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            // Cancelled order, or its stock reservation expired before it shipped
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
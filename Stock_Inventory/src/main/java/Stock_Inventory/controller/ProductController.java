@@ -1,18 +1,28 @@
 // src/main/java/Stock_Inventory/controller/ProductController.java
 package Stock_Inventory.controller;
 
+import Stock_Inventory.dto.CursorPage;
 import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.dto.ProductImportReportDTO;
 import Stock_Inventory.dto.ProductUpdateRequest;
 import Stock_Inventory.dto.ProductQuantityUpdateRequest;
+import Stock_Inventory.dto.ResourceVersion;
 import Stock_Inventory.model.Product;
+import Stock_Inventory.service.ProductImportService;
 import Stock_Inventory.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/products")
@@ -21,6 +31,9 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     /**
      * Creates a new product and initializes its stock entry.
      * @param request DTO containing product details and initial stock level.
@@ -33,22 +46,48 @@ public class ProductController {
     }
 
     /**
-     * Retrieves a list of all products.
-     * @return ResponseEntity with a list of Products and HTTP status 200.
+     * Bulk-creates products from a UTF-8 CSV body with the columns name, description, price,
+     * stock level and an optional reorder level. The body is read as a stream, not buffered.
+     * @param body The CSV; a header row is optional.
+     * @return ResponseEntity with the import report (counts and per-line errors) and HTTP status 200.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ProductImportReportDTO> importProducts(InputStream body) throws IOException {
+        ProductImportReportDTO report = productImportService.importProducts(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves one keyset page of products, ordered by id.
+     * @param after Cursor from the previous page's {@code next}; omit for the first page.
+     * @param limit Page size, 100 by default and at most 1000.
+     * @return ResponseEntity with the page of Products and HTTP status 200.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
+    public ResponseEntity<CursorPage<Product>> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Product> products = productService.getProductPage(CursorPage.after(after), CursorPage.limit(limit));
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
     /**
-     * Retrieves a product by its ID.
+     * Retrieves a product by its ID. Responses carry an ETag and Last-Modified; a matching
+     * If-None-Match (or If-Modified-Since) gets a 304 without the product being loaded.
      * @param id The ID of the product to retrieve.
-     * @return ResponseEntity with the Product and HTTP status 200, or 404 if not found.
+     * @return ResponseEntity with the Product and HTTP status 200, 304 if unchanged, or 404 if not found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<ResourceVersion> version = productService.getProductVersion(id);
+        if (version.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        // Also sets the ETag/Last-Modified headers on the 200. The version is read before the product,
+        // so a concurrent write can only make the body newer than its ETag, never older.
+        if (webRequest.checkNotModified(version.get().etag(), version.get().lastModified())) {
+            return null; // 304 already written
+        }
         return productService.getProductById(id)
                 .map(product -> new ResponseEntity<>(product, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
@@ -1,29 +1,50 @@
 // src/main/java/Stock_Inventory/controller/StockController.java
 package Stock_Inventory.controller;
 
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.LowStockView;
+import Stock_Inventory.dto.ResourceVersion;
 import Stock_Inventory.dto.StockAddRequest;
+import Stock_Inventory.dto.StockAdjustmentRequest;
+import Stock_Inventory.dto.StockBulkAdjustResultDTO;
+import Stock_Inventory.dto.StockAvailabilityDTO;
+import Stock_Inventory.dto.StockLedgerView;
 import Stock_Inventory.dto.StockUpdateRequest;
 import Stock_Inventory.dto.StockResponseDTO; // Ensure this is imported
+import Stock_Inventory.service.ConcurrencyRetry;
 import Stock_Inventory.service.StockService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/stocks")
 @Validated
 public class StockController {
 
+    private static final int MAX_AVAILABILITY_IDS = 1000;
+
     @Autowired
     private StockService stockService;
 
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    @Value("${inventory.stock-bulk-adjust.max-size:5000}")
+    private int maxBulkAdjustSize;
+
     // Now returns StockResponseDTO
     @PostMapping
     public ResponseEntity<StockResponseDTO> createStock(@Valid @RequestBody StockAddRequest request) {
@@ -37,26 +58,97 @@ public class StockController {
         }
     }
 
+    /**
+     * Keyset-paginated list, ordered by id. Pass the returned {@code next} as {@code after}
+     * to fetch the following page; {@code limit} defaults to 100 and is capped at 1000.
+     */
     @GetMapping
-    public ResponseEntity<List<StockResponseDTO>> getAllStocks() {
-        List<StockResponseDTO> stocks = stockService.getAllStocks();
+    public ResponseEntity<CursorPage<StockResponseDTO>> getAllStocks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<StockResponseDTO> stocks = stockService.getStockPage(CursorPage.after(after), CursorPage.limit(limit));
         return new ResponseEntity<>(stocks, HttpStatus.OK);
     }
 
+    /**
+     * Stock at or below its reorder level, largest deficit first. For the next page pass the returned
+     * {@code next} as {@code after} together with {@code nextKey} (the last item's deficit) as {@code afterDeficit}.
+     */
+    @GetMapping("/low")
+    public ResponseEntity<CursorPage<LowStockView>> getLowStock(
+            @RequestParam(required = false) Integer afterDeficit,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if ((afterDeficit == null) != (after == null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // The cursor is the pair
+        }
+        return ResponseEntity.ok(stockService.getLowStockPage(afterDeficit, after, CursorPage.limit(limit)));
+    }
+
+    /**
+     * Available quantities for up to 1000 products (?productIds=1,2,3), served from memory with no
+     * database round trip. Meant for terminals that poll stock levels.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<StockAvailabilityDTO> getAvailability(@RequestParam long[] productIds) {
+        if (productIds.length > MAX_AVAILABILITY_IDS) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(stockService.getAvailability(productIds));
+    }
+
+    /**
+     * Single stock entries carry an ETag and Last-Modified; a matching If-None-Match (or
+     * If-Modified-Since) gets a 304 without the stock row being loaded.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<StockResponseDTO> getStockById(@PathVariable Long id) {
+    public ResponseEntity<StockResponseDTO> getStockById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<ResourceVersion> version = stockService.getStockVersion(id);
+        if (version.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (notModified(version.get(), webRequest)) {
+            return null; // 304 already written
+        }
         return stockService.getStockById(id)
                 .map(stock -> new ResponseEntity<>(stock, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping("/product/{productId}")
-    public ResponseEntity<StockResponseDTO> getStockByProductId(@PathVariable Long productId) {
+    public ResponseEntity<StockResponseDTO> getStockByProductId(@PathVariable Long productId, WebRequest webRequest) {
+        Optional<ResourceVersion> version = stockService.getStockVersionByProductId(productId);
+        if (version.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (notModified(version.get(), webRequest)) {
+            return null; // 304 already written
+        }
         return stockService.getStockByProductId(productId)
                 .map(stock -> new ResponseEntity<>(stock, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * The product's quantity according to the stock movement ledger as of {@code asOf}, answered
+     * from the latest snapshot plus the movements since. Without {@code asOf} it is the current
+     * value, reconciled against the live quantity (a non-zero drift means the two disagree).
+     */
+    @GetMapping("/product/{productId}/ledger")
+    public ResponseEntity<StockLedgerView> getLedgerQuantity(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return stockService.getLedgerQuantity(productId, asOf)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Also sets the ETag/Last-Modified headers on the 200. The version is read before the row,
+    // so a concurrent write can only make the body newer than its ETag, never older.
+    private static boolean notModified(ResourceVersion version, WebRequest webRequest) {
+        return webRequest.checkNotModified(version.etag(), version.lastModified());
+    }
+
     // Now returns StockResponseDTO
 //    @PutMapping("/{id}")
 //    public ResponseEntity<StockResponseDTO> updateStock(@PathVariable Long id, @Valid @RequestBody StockUpdateRequest request) {
@@ -88,20 +180,36 @@ public class StockController {
             @PathVariable Long productId,
             @RequestParam @Min(value = 0, message = "Quantity cannot be negative") Integer newQuantity) {
         try {
-            StockResponseDTO updatedStockDTO = stockService.updateStockQuantity(productId, newQuantity);
+            StockResponseDTO updatedStockDTO = concurrencyRetry.execute("updateStockQuantity",
+                    () -> stockService.updateStockQuantity(productId, newQuantity));
             return ResponseEntity.ok(updatedStockDTO);
         } catch (jakarta.persistence.EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Applies a set of stock adjustments (cycle counts) in one transaction. Each entry carries either
+     * a counted newQuantity or a delta; entries that are invalid, unknown or would go negative are
+     * rejected individually and listed in the summary, the rest are applied. Sets larger than
+     * {@code inventory.stock-bulk-adjust.max-size} are rejected with 400; split them client-side.
+     */
+    @PostMapping("/bulk-adjust")
+    public ResponseEntity<StockBulkAdjustResultDTO> bulkAdjust(@RequestBody List<StockAdjustmentRequest> adjustments) {
+        if (adjustments.size() > maxBulkAdjustSize) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Every row in the set stays locked until commit
+        }
+        return ResponseEntity.ok(concurrencyRetry.execute("bulkAdjustStock", () -> stockService.bulkAdjust(adjustments)));
+    }
+
     // Now returns StockResponseDTO
     @PutMapping("/product/{productId}/reorder-level")
     public ResponseEntity<StockResponseDTO> updateReorderLevel(
             @PathVariable Long productId,
             @RequestParam @Min(value = 0, message = "Reorder level cannot be negative") Integer newReorderLevel) {
         try {
-            StockResponseDTO updatedStockDTO = stockService.updateReorderLevel(productId, newReorderLevel);
+            StockResponseDTO updatedStockDTO = concurrencyRetry.execute("updateReorderLevel",
+                    () -> stockService.updateReorderLevel(productId, newReorderLevel));
             return ResponseEntity.ok(updatedStockDTO);
         } catch (jakarta.persistence.EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
@@ -1,6 +1,7 @@
 // src/main/java/Stock_Inventory/controller/SupplierController.java
 package Stock_Inventory.controller;
 
+import Stock_Inventory.dto.CursorPage;
 import Stock_Inventory.dto.SupplierRequest;
 import Stock_Inventory.model.Supplier;
 import Stock_Inventory.service.SupplierService;
@@ -10,8 +11,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/suppliers")
 public class SupplierController {
@@ -25,9 +24,15 @@ public class SupplierController {
         return new ResponseEntity<>(supplier, HttpStatus.CREATED);
     }
 
+    /**
+     * Keyset-paginated list, ordered by id. Pass the returned {@code next} as {@code after}
+     * to fetch the following page; {@code limit} defaults to 100 and is capped at 1000.
+     */
     @GetMapping
-    public ResponseEntity<List<Supplier>> getAllSuppliers() {
-        List<Supplier> suppliers = supplierService.getAllSuppliers();
+    public ResponseEntity<CursorPage<Supplier>> getAllSuppliers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Supplier> suppliers = supplierService.getSupplierPage(CursorPage.after(after), CursorPage.limit(limit));
         return new ResponseEntity<>(suppliers, HttpStatus.OK);
     }
 
@@ -0,0 +1,26 @@
+// src/main/java/Stock_Inventory/dto/AsyncOrderStatusDTO.java
+package Stock_Inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncOrderStatusDTO {
+    private String trackingId;
+    private State state;
+    private Long orderId; // Only set once the order was created
+    private String message; // Reason when the order was rejected
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+
+    public enum State {
+        QUEUED,
+        CREATED,
+        REJECTED
+    }
+}
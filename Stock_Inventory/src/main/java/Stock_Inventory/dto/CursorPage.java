@@ -0,0 +1,68 @@
+package Stock_Inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. Rows are ordered by id; pass {@code next} back as
+ * {@code ?after=} to get the following page. {@code next} is null on the last page.
+ * Lists ordered by another column first (then by id) also return that column's value for the
+ * last item as {@code nextKey}; the following page needs both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private List<T> items;
+    private Long next;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Object nextKey;
+
+    public CursorPage(List<T> items, Long next) {
+        this(items, next, null);
+    }
+
+    public static long after(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    public static int limit(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // Asks for one row more than the page size, so we know whether another page exists without a count query.
+    public static Pageable seek(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+
+    // For lists ordered by (key, id): the cursor is the last item's key together with its id.
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf, Function<T, ?> keyOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        T last = rows.get(limit - 1);
+        return new CursorPage<>(rows.subList(0, limit), idOf.apply(last), keyOf.apply(last));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), next, nextKey);
+    }
+}
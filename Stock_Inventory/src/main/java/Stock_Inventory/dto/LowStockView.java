@@ -0,0 +1,5 @@
+package Stock_Inventory.dto;
+
+// A stock row at or below its reorder level; deficit = reorderLevel - quantity.
+public record LowStockView(Long stockId, Long productId, Integer quantity, Integer reorderLevel, Integer deficit) {
+}
@@ -0,0 +1,23 @@
+// src/main/java/Stock_Inventory/dto/OrderBatchResultDTO.java
+package Stock_Inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultDTO {
+    private int index; // Position of the order in the submitted batch
+    private Outcome outcome;
+    private Long orderId; // Only set when the order was created
+    private String message;
+
+    public enum Outcome {
+        CREATED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND,
+        INVALID
+    }
+}
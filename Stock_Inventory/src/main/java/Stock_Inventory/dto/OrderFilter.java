@@ -0,0 +1,13 @@
+package Stock_Inventory.dto;
+
+import Stock_Inventory.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Optional filters for GET /api/orders; every field may be null. The date range is [from, to).
+public record OrderFilter(Long customerId, OrderStatus status, LocalDateTime from, LocalDateTime to) {
+
+    public boolean isEmpty() {
+        return customerId == null && status == null && from == null && to == null;
+    }
+}
@@ -0,0 +1,10 @@
+package Stock_Inventory.dto;
+
+import Stock_Inventory.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Read-only projection of a customer_order row, without its lines. The totals are null on rows not yet backfilled.
+public record OrderHeaderView(Long orderId, Long customerId, LocalDateTime orderDate, OrderStatus status,
+                              Double totalAmount, Integer itemCount) {
+}
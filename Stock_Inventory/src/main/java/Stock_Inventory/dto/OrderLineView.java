@@ -0,0 +1,9 @@
+package Stock_Inventory.dto;
+
+// Read-only projection of an order_item row, keyed by the order it belongs to.
+public record OrderLineView(Long orderId, Long orderItemId, Long productId, Integer quantity, Double priceAtOrder) {
+
+    public OrderResponseDTO.OrderItemResponseDTO toDto() {
+        return new OrderResponseDTO.OrderItemResponseDTO(orderItemId, productId, quantity, priceAtOrder);
+    }
+}
@@ -18,6 +18,7 @@ public class OrderResponseDTO {
     private LocalDateTime orderDate;
     private OrderStatus status;
     private Double totalAmount;
+    private Integer itemCount; // Number of order lines; set even when orderItems is omitted
 
     @Data
     @NoArgsConstructor
@@ -0,0 +1,9 @@
+package Stock_Inventory.dto;
+
+import Stock_Inventory.model.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+// An outbox event as handed to OutboxPublishers. Delivery is at least once: dedupe on eventId.
+public record OutboxMessage(long eventId, String aggregateType, long aggregateId, OutboxEventType eventType, String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,21 @@
+package Stock_Inventory.dto;
+
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.StockMovementReason;
+
+import java.util.List;
+
+// JSON payloads of the outbox event types (see OutboxEventType).
+public final class OutboxPayloads {
+
+    private OutboxPayloads() {
+    }
+
+    public record OrderCreated(Long orderId, Long customerId, Double totalAmount, List<Line> items) {
+        public record Line(Long productId, int quantity, Double priceAtOrder) {}
+    }
+
+    public record OrderStatusChanged(Long orderId, OrderStatus from, OrderStatus to) {}
+
+    public record StockChanged(Long productId, int delta, StockMovementReason reason, Long orderId) {}
+}
@@ -0,0 +1,30 @@
+package Stock_Inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a CSV product import. Only the first errors are listed (see errorsTruncated);
+ * {@code rejected} always counts all of them.
+ */
+@Data
+@NoArgsConstructor
+public class ProductImportReportDTO {
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int line; // Line of the CSV on which the row starts
+        private String message;
+    }
+}
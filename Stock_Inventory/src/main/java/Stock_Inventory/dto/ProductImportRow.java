@@ -0,0 +1,35 @@
+package Stock_Inventory.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One parsed line of a product CSV import (POST /api/products/import).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+    @NotBlank(message = "Product name cannot be blank")
+    @Size(max = 255, message = "Product name cannot be longer than 255 characters")
+    private String name;
+
+    @Size(max = 16000, message = "Description cannot be longer than 16000 characters")
+    private String description;
+
+    @NotNull(message = "Product price cannot be null")
+    @Positive(message = "Product price must be positive")
+    private Double price;
+
+    @NotNull(message = "Initial stock level is required")
+    @PositiveOrZero(message = "Stock level cannot be negative")
+    private Integer stockLevel;
+
+    @NotNull(message = "Reorder level is required")
+    @PositiveOrZero(message = "Reorder level cannot be negative")
+    private Integer reorderLevel;
+}
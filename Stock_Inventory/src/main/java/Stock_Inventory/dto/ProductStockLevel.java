@@ -0,0 +1,12 @@
+package Stock_Inventory.dto;
+
+import Stock_Inventory.model.Product;
+
+// A product row joined with its stock quantity; quantity is null when the product has no stock entry.
+public record ProductStockLevel(Product product, Integer quantity) {
+
+    public Product withStockLevel() {
+        product.setStockLevel(quantity);
+        return product;
+    }
+}
@@ -0,0 +1,14 @@
+package Stock_Inventory.dto;
+
+import java.time.Instant;
+
+// Version columns of a product and its stock row, for ETag/Last-Modified; the stock fields are null without a stock row.
+public record ProductVersionView(Long productVersion, Instant productModified, Long stockVersion, Instant stockModified) {
+
+    public Instant lastModified() {
+        if (stockModified == null || (productModified != null && productModified.isAfter(stockModified))) {
+            return productModified;
+        }
+        return stockModified;
+    }
+}
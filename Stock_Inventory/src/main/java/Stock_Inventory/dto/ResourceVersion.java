@@ -0,0 +1,19 @@
+// src/main/java/Stock_Inventory/dto/ResourceVersion.java
+package Stock_Inventory.dto;
+
+import java.time.Instant;
+
+/**
+ * Validators for a conditional GET: a strong ETag and the Last-Modified time in epoch millis,
+ * or -1 when there is none to offer. Checked before the resource itself is loaded.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static ResourceVersion of(Instant lastModified, Object... parts) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (int i = 0; i < parts.length; i++) {
+            etag.append(i == 0 ? "" : ".").append(parts[i] != null ? parts[i] : "-");
+        }
+        return new ResourceVersion(etag.append('"').toString(), lastModified != null ? lastModified.toEpochMilli() : -1);
+    }
+}
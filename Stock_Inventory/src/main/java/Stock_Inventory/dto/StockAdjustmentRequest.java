@@ -0,0 +1,15 @@
+package Stock_Inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of POST /api/stocks/bulk-adjust: exactly one of newQuantity (a counted level) or delta.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+    private Long productId;
+    private Integer newQuantity;
+    private Integer delta;
+}
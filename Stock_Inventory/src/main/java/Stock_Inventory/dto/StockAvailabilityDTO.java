@@ -0,0 +1,15 @@
+package Stock_Inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Parallel primitive arrays keep the hot polling response free of per-product objects.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailabilityDTO {
+    private long[] productIds; // Products that have a stock entry, in request order
+    private int[] available; // available[i] is the quantity for productIds[i]
+    private long[] unknownProductIds; // Requested products with no stock entry
+}
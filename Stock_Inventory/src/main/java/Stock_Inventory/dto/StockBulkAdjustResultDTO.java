@@ -0,0 +1,33 @@
+package Stock_Inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary of a bulk stock adjustment: applied entries are only counted, rejected ones are listed.
+@Data
+@NoArgsConstructor
+public class StockBulkAdjustResultDTO {
+    private int applied;
+    private int rejected;
+    private List<Rejection> rejections = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+        private int index; // Position of the entry in the submitted list
+        private Long productId;
+        private Reason reason;
+        private String message;
+    }
+
+    public enum Reason {
+        INVALID,
+        NOT_FOUND,
+        NEGATIVE_QUANTITY
+    }
+}
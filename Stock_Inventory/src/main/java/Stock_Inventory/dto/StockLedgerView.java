@@ -0,0 +1,11 @@
+package Stock_Inventory.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's quantity according to the stock ledger at {@code asOf}. For the current time it is
+ * reconciled against the live quantity: {@code drift = stockQuantity - ledgerQuantity}, which
+ * should be zero. Both are null for a past point in time, or once the stock row is gone.
+ */
+public record StockLedgerView(Long productId, LocalDateTime asOf, Integer ledgerQuantity, Integer stockQuantity, Integer drift) {
+}
@@ -0,0 +1,8 @@
+// src/main/java/Stock_Inventory/dto/StockLevelView.java
+package Stock_Inventory.dto;
+
+// Read-only projection of a stock row: the product it belongs to and its current quantity.
+public interface StockLevelView {
+    Long getProductId();
+    Integer getQuantity();
+}
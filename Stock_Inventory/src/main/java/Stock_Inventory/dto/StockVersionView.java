@@ -0,0 +1,7 @@
+package Stock_Inventory.dto;
+
+import java.time.Instant;
+
+// Version columns of a stock row, for ETag/Last-Modified.
+public record StockVersionView(Long stockId, Long productId, Long version, Instant lastModified) {
+}
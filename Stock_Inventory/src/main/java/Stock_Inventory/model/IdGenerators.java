@@ -0,0 +1,20 @@
+// src/main/java/Stock_Inventory/model/IdGenerators.java
+package Stock_Inventory.model;
+
+/**
+ * Settings shared by the pooled, table-backed id generators of Order, OrderItem, Product and Stock.
+ * MySQL has no sequences, so each entity has a row in id_generator. Hibernate reserves
+ * ALLOCATION_SIZE ids per round trip and assigns them before the INSERT, so the INSERTs can be
+ * batched, which IDENTITY columns rule out. The JDBC batch writers take their ids from the same
+ * pools (EntityIdAllocator); IdGeneratorMigration seeds the rows on databases that predate this.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,31 @@
+// src/main/java/Stock_Inventory/model/IdempotencyKey.java
+package Stock_Inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Remembers which order a client-supplied Idempotency-Key created, so retries can be replayed.
+@Entity
+@Table(name = "order_idempotency_key", indexes = @Index(name = "idx_idempotency_order", columnList = "order_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // Null only inside the transaction that claimed the key, before its order is saved.
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
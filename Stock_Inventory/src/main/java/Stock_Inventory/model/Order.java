@@ -14,7 +14,12 @@ import java.util.List;
 import Stock_Inventory.model.OrderStatus; // <--- IMPORTANT: Changed this import
 
 @Entity
-@Table(name = "customer_order")
+@Table(name = "customer_order", indexes = {
+        // Filtered order lists (OrderRepository.findHeaderPageBy*) seek on these, ordered by (order_date, order_id).
+        @Index(name = "idx_order_customer_date", columnList = "customer_id, order_date"),
+        @Index(name = "idx_order_status_date", columnList = "status, order_date"),
+        @Index(name = "idx_order_date", columnList = "order_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,26 +28,34 @@ import Stock_Inventory.model.OrderStatus; // <--- IMPORTANT: Changed this import
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "customer_order", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long orderId;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Lazy: reads build responses from projections (OrderRepository/OrderItemRepository), only writes load the lines.
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
 
     @Column(nullable = false)
     private LocalDateTime orderDate;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "varchar(20)")
     private OrderStatus status; // <--- Now references the top-level enum
 
-    @Transient
+    // Written once when the order is created, so reads and revenue queries never have to sum the lines.
+    // Null only on rows older than these columns, until OrderTotalsBackfill reaches them.
+    @Column(name = "total_amount")
     private Double totalAmount;
 
+    @Column(name = "item_count")
+    private Integer itemCount; // Number of order lines
+
     // The nested enum is removed from here!
 
     @PrePersist
@@ -54,8 +67,10 @@ public class Order {
     }
 
     public Double calculateTotalAmount() {
-        return this.orderItems.stream()
-                .mapToDouble(item -> item.getQuantity() * item.getPriceAtOrder())
-                .sum();
+        double total = 0;
+        for (OrderItem item : this.orderItems) {
+            total += item.getQuantity() * item.getPriceAtOrder();
+        }
+        return total;
     }
 }
\ No newline at end of file
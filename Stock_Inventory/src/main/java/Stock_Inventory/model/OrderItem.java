@@ -16,7 +16,9 @@ import com.fasterxml.jackson.annotation.JsonBackReference; // Important for bidi
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_ids")
+    @TableGenerator(name = "order_item_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "order_item", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long orderItemId; // This will be the 'id' in your DTO
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -4,5 +4,6 @@ package Stock_Inventory.model;
 public enum OrderStatus {
     PENDING,
     SHIPPED,
-    DELIVERED
+    DELIVERED,
+    CANCELLED // Cancelled by the client, or its stock reservation expired before it shipped
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package Stock_Inventory.model;
+
+// Event types written to the outbox; each belongs to one aggregate type, which scopes its ordering.
+public enum OutboxEventType {
+    ORDER_CREATED("order"),
+    ORDER_STATUS_CHANGED("order"),
+    STOCK_CHANGED("stock"); // Aggregate id is the productId
+
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String aggregateType() {
+        return aggregateType;
+    }
+}
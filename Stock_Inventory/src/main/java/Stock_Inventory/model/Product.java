@@ -1,6 +1,7 @@
 // src/main/java/Stock_Inventory/model/Product.java
 package Stock_Inventory.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,6 +10,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "product")
 @Data // Includes @Getter, @Setter, @RequiredArgsConstructor, @ToString, @EqualsAndHashCode
@@ -17,7 +20,9 @@ import lombok.NoArgsConstructor;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_ids")
+    @TableGenerator(name = "product_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "product", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long productId;
 
     @NotBlank(message = "Product name is required")
@@ -34,6 +39,18 @@ public class Product {
     // The actual stock quantity is stored in the Stock entity.
     @Transient
     private Integer stockLevel;
+
+    // Together with Stock.version this is the product's ETag (ProductService.getProductVersion).
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long version;
+
+    // Maintained by the database (ON UPDATE), never written by Hibernate; only read for Last-Modified.
+    @Column(name = "last_modified", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)")
+    @JsonIgnore
+    private Instant lastModified;
 }
 
 
@@ -0,0 +1,9 @@
+// src/main/java/Stock_Inventory/model/ReservationStatus.java
+package Stock_Inventory.model;
+
+public enum ReservationStatus {
+    ACTIVE,    // Stock is held for a PENDING order
+    COMMITTED, // The order shipped; the stock is gone for good
+    RELEASED,  // The order was cancelled; the stock went back on sale
+    EXPIRED    // Not shipped within the TTL; the stock went back on sale
+}
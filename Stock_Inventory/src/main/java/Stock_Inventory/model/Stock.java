@@ -7,16 +7,22 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "stock")
+@Table(name = "stock", indexes = @Index(name = "idx_stock_deficit", columnList = "deficit, stock_id"))
+@DynamicUpdate // Only write changed columns, so editing reorderLevel never overwrites a concurrently adjusted quantity
 @Data // Includes @Getter, @Setter, @RequiredArgsConstructor, @ToString, @EqualsAndHashCode
 @NoArgsConstructor // Adds a no-argument constructor
 @AllArgsConstructor // Adds a constructor with all fields
 public class Stock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_ids")
+    @TableGenerator(name = "stock_ids", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "stock", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long stockId;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -31,6 +37,21 @@ public class Stock {
     @NotNull(message = "Reorder level cannot be null")
     @Min(value = 0, message = "Reorder level cannot be negative")
     private Integer reorderLevel;
+
+    // reorderLevel - quantity, computed by the database; >= 0 means at or below the reorder level.
+    // Indexed with stock_id so GET /api/stocks/low is a range scan rather than a full table scan.
+    @Column(insertable = false, updatable = false, columnDefinition = "INT GENERATED ALWAYS AS (reorder_level - quantity)")
+    private Integer deficit;
+
+    // Bumped by every write, including the native UPDATEs in StockRepository and the batch paths.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Maintained by the database (ON UPDATE), so the native and batched UPDATEs move it too; only read for Last-Modified.
+    @Column(name = "last_modified", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)")
+    private Instant lastModified;
 }
 
 
@@ -0,0 +1,46 @@
+package Stock_Inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One append-only entry of the stock ledger: a signed change to a product's quantity. Rows are
+ * only ever inserted (in JDBC batches by StockLedger), never updated or deleted. product_id and
+ * order_id carry no foreign keys so the history outlives deleted products and orders.
+ */
+@Entity
+@Table(name = "stock_movement", indexes = {
+        @Index(name = "idx_movement_product_time", columnList = "product_id, created_at"),
+        @Index(name = "idx_movement_time", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long movementId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private StockMovementReason reason;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
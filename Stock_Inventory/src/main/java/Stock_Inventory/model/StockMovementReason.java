@@ -0,0 +1,11 @@
+package Stock_Inventory.model;
+
+public enum StockMovementReason {
+    OPENING,             // Balance carried over from before the ledger existed
+    INITIAL,             // Stock row created (new product, new stock entry, import)
+    ADJUSTMENT,          // Manual change or cycle count
+    ORDER,               // Taken by a new order
+    ORDER_CANCELLED,     // Returned when a PENDING order was cancelled
+    RESERVATION_EXPIRED, // Returned when a PENDING order missed its reservation TTL
+    REMOVED              // Stock row deleted; its remaining quantity leaves the books
+}
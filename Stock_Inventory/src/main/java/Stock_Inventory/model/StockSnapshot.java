@@ -0,0 +1,34 @@
+package Stock_Inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Ledger checkpoint: a product's quantity with every stock_movement up to as_of folded in.
+@Entity
+@Table(name = "stock_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_snapshot_product_as_of", columnNames = {"product_id", "as_of"}),
+        indexes = @Index(name = "idx_snapshot_as_of", columnList = "as_of"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long snapshotId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -2,9 +2,18 @@
 package Stock_Inventory.repository;
 
 import Stock_Inventory.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // Keyset page: seeks on the primary key, so the cost does not grow with page depth.
+    @Query("SELECT c FROM Customer c WHERE c.customerId > :after ORDER BY c.customerId")
+    List<Customer> findPage(@Param("after") long after, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package Stock_Inventory.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out ids to the JDBC batch writers from the entity's own Hibernate generator, so rows
+ * inserted with plain JDBC and rows persisted through JPA draw from one pool and never collide.
+ * With the pooled table generators that is one id_generator round trip per ALLOCATION_SIZE ids.
+ * Must be called inside a transaction.
+ */
+@Component
+public class EntityIdAllocator {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public long[] nextIds(Class<?> entityClass, int count) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(entityClass).getGenerator();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = ((Number) generator.generate(session, null)).longValue();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,31 @@
+// src/main/java/Stock_Inventory/repository/IdempotencyKeyRepository.java
+package Stock_Inventory.repository;
+
+import Stock_Inventory.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claims the key with a plain INSERT (save() would merge: SELECT, then UPDATE an existing row).
+     * A second claim of the same key waits on the row and fails with a duplicate key once the first commits.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_key (idempotency_key, order_id, created_at) VALUES (:key, NULL, :createdAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId WHERE k.idempotencyKey = :key")
+    int assignOrder(@Param("key") String key, @Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -1,10 +1,21 @@
 // src/main/java/Stock_Inventory/repository/OrderItemRepository.java
 package Stock_Inventory.repository;
 
+import Stock_Inventory.dto.OrderLineView;
 import Stock_Inventory.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    // Lines for a set of orders in one query; the foreign keys are read directly, no joins.
+    @Query("SELECT new Stock_Inventory.dto.OrderLineView(i.order.orderId, i.orderItemId, i.product.productId, i.quantity, i.priceAtOrder) " +
+            "FROM OrderItem i WHERE i.order.orderId IN :orderIds ORDER BY i.order.orderId, i.orderItemId")
+    List<OrderLineView> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,131 @@
+// src/main/java/Stock_Inventory/repository/OrderJdbcRepository.java
+package Stock_Inventory.repository;
+
+import Stock_Inventory.model.Order;
+import Stock_Inventory.model.OrderItem;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.ReservationStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC batch writes for bulk order ingestion, where going through the entity manager
+ * would mean creating, cascading and dirty-checking an entity per order and per order line.
+ */
+@Repository
+public class OrderJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityIdAllocator entityIdAllocator;
+
+    public record NewOrderLine(Long productId, int quantity, double priceAtOrder) {}
+
+    public record NewOrder(Long customerId, List<NewOrderLine> lines) {
+        public double totalAmount() {
+            double total = 0;
+            for (NewOrderLine line : lines) {
+                total += line.quantity() * line.priceAtOrder();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Inserts the orders and all their lines as two JDBC batches, with ids taken from the
+     * Order and OrderItem generators.
+     *
+     * @return the new order ids, in the same order as {@code orders}.
+     */
+    public List<Long> insertOrders(List<NewOrder> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] orderIds = entityIdAllocator.nextIds(Order.class, orders.size());
+        List<Object[]> orderArgs = new ArrayList<>(orders.size());
+        int lineCount = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            NewOrder order = orders.get(i);
+            orderArgs.add(new Object[]{orderIds[i], order.customerId(), now, OrderStatus.PENDING.name(), order.totalAmount(), order.lines().size()});
+            lineCount += order.lines().size();
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO customer_order (order_id, customer_id, order_date, status, total_amount, item_count) VALUES (?, ?, ?, ?, ?, ?)", orderArgs);
+
+        long[] lineIds = entityIdAllocator.nextIds(OrderItem.class, lineCount);
+        List<Object[]> lineArgs = new ArrayList<>(lineCount);
+        for (int i = 0; i < orders.size(); i++) {
+            for (NewOrderLine line : orders.get(i).lines()) {
+                lineArgs.add(new Object[]{lineIds[lineArgs.size()], orderIds[i], line.productId(), line.quantity(), line.priceAtOrder()});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_item (order_item_id, order_id, product_id, quantity, price_at_order) VALUES (?, ?, ?, ?, ?)", lineArgs);
+
+        List<Long> ids = new ArrayList<>(orderIds.length);
+        for (long orderId : orderIds) {
+            ids.add(orderId);
+        }
+        return ids;
+    }
+
+    /**
+     * Records one ACTIVE stock reservation per order line, as a single JDBC batch.
+     */
+    public void insertReservations(List<Long> orderIds, List<NewOrder> orders, LocalDateTime expiresAt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expiry = Timestamp.valueOf(expiresAt);
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            for (NewOrderLine line : orders.get(i).lines()) {
+                args.add(new Object[]{orderIds.get(i), line.productId(), line.quantity(), ReservationStatus.ACTIVE.name(), now, expiry});
+            }
+        }
+        insertReservations(args);
+    }
+
+    /**
+     * Records one ACTIVE stock reservation per product of a single order, as a single JDBC batch.
+     */
+    public void insertReservations(Long orderId, Map<Long, Integer> quantitiesByProduct, LocalDateTime expiresAt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expiry = Timestamp.valueOf(expiresAt);
+        List<Object[]> args = new ArrayList<>(quantitiesByProduct.size());
+        quantitiesByProduct.forEach((productId, quantity) ->
+                args.add(new Object[]{orderId, productId, quantity, ReservationStatus.ACTIVE.name(), now, expiry}));
+        insertReservations(args);
+    }
+
+    private void insertReservations(List<Object[]> args) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_reservation (order_id, product_id, quantity, status, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)", args);
+    }
+
+    /**
+     * Applies one grouped deduction per product. The caller must already hold the stock row locks.
+     *
+     * @return false if any product did not have enough stock left.
+     */
+    public boolean deductStock(Map<Long, Integer> quantitiesByProduct) {
+        List<Object[]> args = new ArrayList<>();
+        quantitiesByProduct.forEach((productId, quantity) -> args.add(new Object[]{quantity, productId, quantity}));
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE stock SET quantity = quantity - ?, version = version + 1 WHERE product_id = ? AND quantity >= ?", args);
+        for (int count : counts) {
+            if (count == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
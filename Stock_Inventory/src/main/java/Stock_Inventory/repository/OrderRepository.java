@@ -1,10 +1,74 @@
 // src/main/java/Stock_Inventory/repository/OrderRepository.java
 package Stock_Inventory.repository;
 
+import Stock_Inventory.dto.OrderHeaderView;
 import Stock_Inventory.model.Order;
+import Stock_Inventory.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-}
\ No newline at end of file
+
+    // Order reads go through these header projections plus OrderItemRepository.findLinesByOrderIds,
+    // so no entities (or lazy collections) are loaded just to build a response.
+    @Query("SELECT new Stock_Inventory.dto.OrderHeaderView(o.orderId, o.customer.customerId, o.orderDate, o.status, o.totalAmount, o.itemCount) FROM Order o WHERE o.orderId = :id")
+    Optional<OrderHeaderView> findHeaderById(@Param("id") Long id);
+
+    // Keyset page: seeks on the primary key, so the cost does not grow with page depth.
+    @Query("SELECT new Stock_Inventory.dto.OrderHeaderView(o.orderId, o.customer.customerId, o.orderDate, o.status, o.totalAmount, o.itemCount) FROM Order o WHERE o.orderId > :after ORDER BY o.orderId")
+    List<OrderHeaderView> findHeaderPage(@Param("after") long after, Pageable pageable);
+
+    // Filtered pages, ordered by (orderDate, orderId) so each one is a range scan of the matching composite
+    // index (InnoDB appends order_id to every secondary index). The cursor is the last row's (orderDate, orderId).
+    @Query("SELECT new Stock_Inventory.dto.OrderHeaderView(o.orderId, o.customer.customerId, o.orderDate, o.status, o.totalAmount, o.itemCount) FROM Order o " +
+            "WHERE o.customer.customerId = :customerId AND (:status IS NULL OR o.status = :status) AND o.orderDate >= :from AND o.orderDate < :to " +
+            "AND (o.orderDate > :afterDate OR (o.orderDate = :afterDate AND o.orderId > :afterId)) ORDER BY o.orderDate, o.orderId")
+    List<OrderHeaderView> findHeaderPageByCustomer(@Param("customerId") Long customerId, @Param("status") OrderStatus status,
+                                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                   @Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new Stock_Inventory.dto.OrderHeaderView(o.orderId, o.customer.customerId, o.orderDate, o.status, o.totalAmount, o.itemCount) FROM Order o " +
+            "WHERE o.status = :status AND o.orderDate >= :from AND o.orderDate < :to " +
+            "AND (o.orderDate > :afterDate OR (o.orderDate = :afterDate AND o.orderId > :afterId)) ORDER BY o.orderDate, o.orderId")
+    List<OrderHeaderView> findHeaderPageByStatus(@Param("status") OrderStatus status,
+                                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                 @Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new Stock_Inventory.dto.OrderHeaderView(o.orderId, o.customer.customerId, o.orderDate, o.status, o.totalAmount, o.itemCount) FROM Order o " +
+            "WHERE o.orderDate >= :from AND o.orderDate < :to " +
+            "AND (o.orderDate > :afterDate OR (o.orderDate = :afterDate AND o.orderId > :afterId)) ORDER BY o.orderDate, o.orderId")
+    List<OrderHeaderView> findHeaderPageByDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                               @Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId, Pageable pageable);
+
+    // Backfill support for rows created before total_amount/item_count were persisted.
+    @Query(value = "SELECT order_id FROM customer_order WHERE total_amount IS NULL AND order_id > :after ORDER BY order_id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsMissingTotals(@Param("after") long after, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE customer_order o SET " +
+            "total_amount = (SELECT COALESCE(SUM(i.quantity * i.price_at_order), 0) FROM order_item i WHERE i.order_id = o.order_id), " +
+            "item_count = (SELECT COUNT(*) FROM order_item i WHERE i.order_id = o.order_id) " +
+            "WHERE o.order_id IN (:ids) AND o.total_amount IS NULL", nativeQuery = true)
+    int fillTotals(@Param("ids") Collection<Long> ids);
+
+    // Serializes status changes of one order, so their outbox events are written in commit order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.orderId IN :ids AND o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+}
@@ -0,0 +1,78 @@
+package Stock_Inventory.repository;
+
+import Stock_Inventory.dto.OutboxMessage;
+import Stock_Inventory.model.OutboxEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+// Plain JDBC access to outbox_event: batched appends for writers, pending batches for OutboxRelay.
+@Repository
+public class OutboxJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record NewEvent(OutboxEventType eventType, long aggregateId, String payload) {}
+
+    public void insertEvents(List<NewEvent> events, LocalDateTime createdAt) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (NewEvent event : events) {
+            args.add(new Object[]{event.eventType().aggregateType(), event.aggregateId(), event.eventType().name(), event.payload(), createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_event (aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)", args);
+    }
+
+    // Oldest unpublished events first (idx_outbox_pending).
+    public List<OutboxMessage> findPending(int limit) {
+        return jdbcTemplate.query("SELECT event_id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox_event "
+                        + "WHERE published_at IS NULL ORDER BY event_id LIMIT ?",
+                (rs, row) -> new OutboxMessage(rs.getLong(1), rs.getString(2), rs.getLong(3), OutboxEventType.valueOf(rs.getString(4)),
+                        rs.getString(5), rs.getObject(6, LocalDateTime.class)),
+                limit);
+    }
+
+    public void markPublished(List<Long> eventIds, LocalDateTime publishedAt) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(eventIds.size(), "?"));
+        List<Object> args = new ArrayList<>(eventIds.size() + 1);
+        args.add(publishedAt);
+        args.addAll(eventIds);
+        jdbcTemplate.update("UPDATE outbox_event SET published_at = ? WHERE event_id IN (" + placeholders + ")", args.toArray());
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event WHERE published_at IS NULL", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public Optional<LocalDateTime> findOldestPendingTime() {
+        return jdbcTemplate.query("SELECT created_at FROM outbox_event WHERE published_at IS NULL ORDER BY event_id LIMIT 1",
+                (rs, row) -> rs.getObject(1, LocalDateTime.class)).stream().findFirst();
+    }
+
+    /**
+     * Deletes up to {@code limit} events published before {@code cutoff}.
+     * @return the number deleted.
+     */
+    public int deletePublishedBefore(LocalDateTime cutoff, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT event_id FROM outbox_event WHERE published_at < ? ORDER BY published_at LIMIT ?",
+                Long.class, cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM outbox_event WHERE event_id IN (" + placeholders + ")", ids.toArray());
+    }
+}
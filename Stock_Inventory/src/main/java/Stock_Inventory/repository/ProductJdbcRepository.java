@@ -0,0 +1,50 @@
+package Stock_Inventory.repository;
+
+import Stock_Inventory.model.Product;
+import Stock_Inventory.model.Stock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writes for bulk product imports: no entities are created or managed, so a
+ * chunk of products costs two batched INSERTs and nothing is left in the persistence context.
+ */
+@Repository
+public class ProductJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityIdAllocator entityIdAllocator;
+
+    public record NewProduct(String name, String description, double price, int stockLevel, int reorderLevel) {}
+
+    /**
+     * Inserts the products and their stock rows as two JDBC batches, with ids taken from the
+     * Product and Stock generators.
+     *
+     * @return the new product ids, in the same order as {@code products}.
+     */
+    public long[] insertProducts(List<NewProduct> products) {
+        if (products.isEmpty()) {
+            return new long[0];
+        }
+        long[] productIds = entityIdAllocator.nextIds(Product.class, products.size());
+        long[] stockIds = entityIdAllocator.nextIds(Stock.class, products.size());
+        List<Object[]> productArgs = new ArrayList<>(products.size());
+        List<Object[]> stockArgs = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            NewProduct product = products.get(i);
+            productArgs.add(new Object[]{productIds[i], product.name(), product.description(), product.price()});
+            stockArgs.add(new Object[]{stockIds[i], productIds[i], product.stockLevel(), product.reorderLevel()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (product_id, name, description, price, version) VALUES (?, ?, ?, ?, 0)", productArgs);
+        jdbcTemplate.batchUpdate("INSERT INTO stock (stock_id, product_id, quantity, reorder_level, version) VALUES (?, ?, ?, ?, 0)", stockArgs);
+        return productIds;
+    }
+}
@@ -1,10 +1,29 @@
-// src/main/java/Stock_Inventory/repository/ProductRepository.java
 package Stock_Inventory.repository;
 
+import Stock_Inventory.dto.ProductStockLevel;
+import Stock_Inventory.dto.ProductVersionView;
 import Stock_Inventory.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+
+    // Products and their stock quantity in a single joined SELECT; the products come back managed.
+    @Query("SELECT new Stock_Inventory.dto.ProductStockLevel(p, s.quantity) FROM Product p LEFT JOIN Stock s ON s.product = p WHERE p.productId = :id")
+    Optional<ProductStockLevel> findWithStockLevelById(@Param("id") Long id);
+
+    // Keyset page: seeks on the primary key, so the cost does not grow with page depth.
+    @Query("SELECT new Stock_Inventory.dto.ProductStockLevel(p, s.quantity) FROM Product p LEFT JOIN Stock s ON s.product = p WHERE p.productId > :after ORDER BY p.productId")
+    List<ProductStockLevel> findPageWithStockLevel(@Param("after") long after, Pageable pageable);
+
+    // Only the version columns, so a conditional GET can answer 304 without loading the product.
+    @Query("SELECT new Stock_Inventory.dto.ProductVersionView(p.version, p.lastModified, s.version, s.lastModified) FROM Product p LEFT JOIN Stock s ON s.product = p WHERE p.productId = :id")
+    Optional<ProductVersionView> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,85 @@
+// src/main/java/Stock_Inventory/repository/StockJdbcRepository.java
+package Stock_Inventory.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Plain JDBC batch updates on the stock table for bulk paths.
+@Repository
+public class StockJdbcRepository {
+
+    private static final int LOCK_SLICE = 1000; // Ids per IN list
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds each quantity to its product's stock in one JDBC batch, touching rows in productId
+     * order like every other multi-row stock write.
+     *
+     * @return the productIds that have no stock row.
+     */
+    public List<Long> addQuantities(Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return List.of();
+        }
+        TreeMap<Long, Integer> sorted = new TreeMap<>(quantitiesByProduct);
+        List<Object[]> args = new ArrayList<>(sorted.size());
+        sorted.forEach((productId, quantity) -> args.add(new Object[]{quantity, productId}));
+        return unmatched(sorted, jdbcTemplate.batchUpdate("UPDATE stock SET quantity = quantity + ?, version = version + 1 WHERE product_id = ?", args));
+    }
+
+    /**
+     * Reads and row-locks (SELECT ... FOR UPDATE) the stock of each product, in productId order and
+     * in slices of {@link #LOCK_SLICE} ids. Products without a stock row are absent from the result.
+     */
+    public Map<Long, Integer> lockQuantities(Collection<Long> productIds) {
+        List<Long> sorted = new ArrayList<>(productIds);
+        Collections.sort(sorted);
+        Map<Long, Integer> quantities = new HashMap<>(sorted.size() * 2);
+        for (int from = 0; from < sorted.size(); from += LOCK_SLICE) {
+            List<Long> slice = sorted.subList(from, Math.min(from + LOCK_SLICE, sorted.size()));
+            String placeholders = String.join(",", Collections.nCopies(slice.size(), "?"));
+            jdbcTemplate.query("SELECT product_id, quantity FROM stock WHERE product_id IN (" + placeholders + ") ORDER BY product_id FOR UPDATE",
+                    (RowCallbackHandler) rs -> quantities.put(rs.getLong(1), rs.getInt(2)), slice.toArray());
+        }
+        return quantities;
+    }
+
+    /**
+     * Guarded form of {@link #addQuantities}: a delta that would take a quantity below zero is not
+     * applied. Rows are touched in productId order.
+     *
+     * @return the productIds whose update matched no row (missing stock or insufficient quantity).
+     */
+    public List<Long> addQuantitiesGuarded(Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return List.of();
+        }
+        TreeMap<Long, Integer> sorted = new TreeMap<>(quantitiesByProduct);
+        List<Object[]> args = new ArrayList<>(sorted.size());
+        sorted.forEach((productId, quantity) -> args.add(new Object[]{quantity, productId, quantity}));
+        return unmatched(sorted, jdbcTemplate.batchUpdate("UPDATE stock SET quantity = quantity + ?, version = version + 1 WHERE product_id = ? AND quantity + ? >= 0", args));
+    }
+
+    private static List<Long> unmatched(TreeMap<Long, Integer> sorted, int[] counts) {
+        List<Long> unmatched = new ArrayList<>();
+        int i = 0;
+        for (Long productId : sorted.keySet()) {
+            if (counts[i++] == 0) { // Statement.SUCCESS_NO_INFO (-2) counts as applied
+                unmatched.add(productId);
+            }
+        }
+        return unmatched;
+    }
+}
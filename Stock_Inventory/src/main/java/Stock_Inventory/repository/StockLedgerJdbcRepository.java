@@ -0,0 +1,82 @@
+package Stock_Inventory.repository;
+
+import Stock_Inventory.model.StockMovementReason;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Plain JDBC access to the stock ledger (stock_movement) and its checkpoints (stock_snapshot).
+@Repository
+public class StockLedgerJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record NewMovement(long productId, int delta, StockMovementReason reason, Long orderId) {}
+
+    public void insertMovements(List<NewMovement> movements, LocalDateTime createdAt) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(movements.size());
+        for (NewMovement movement : movements) {
+            args.add(new Object[]{movement.productId(), movement.delta(), movement.reason().name(), movement.orderId(), createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movement (product_id, delta, reason, order_id, created_at) VALUES (?, ?, ?, ?, ?)", args);
+    }
+
+    // One OPENING movement per stock row, but only while the ledger is still empty.
+    public int insertOpeningBalances(LocalDateTime createdAt) {
+        if (!jdbcTemplate.queryForList("SELECT movement_id FROM stock_movement LIMIT 1", Long.class).isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("INSERT INTO stock_movement (product_id, delta, reason, order_id, created_at) "
+                + "SELECT product_id, quantity, ?, NULL, ? FROM stock WHERE quantity <> 0",
+                StockMovementReason.OPENING.name(), createdAt);
+    }
+
+    public Optional<LocalDateTime> findLastSnapshotTime() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MAX(as_of) FROM stock_snapshot", LocalDateTime.class));
+    }
+
+    /**
+     * Writes a checkpoint at {@code to} for every product with movements in ({@code from}, {@code to}]:
+     * its latest earlier checkpoint plus those movements, in one INSERT ... SELECT.
+     *
+     * @return the number of checkpoints written.
+     */
+    public int insertSnapshots(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update("INSERT INTO stock_snapshot (product_id, as_of, quantity) "
+                + "SELECT m.product_id, ?, COALESCE((SELECT s.quantity FROM stock_snapshot s WHERE s.product_id = m.product_id "
+                + "ORDER BY s.as_of DESC LIMIT 1), 0) + SUM(m.delta) "
+                + "FROM stock_movement m WHERE m.created_at > ? AND m.created_at <= ? GROUP BY m.product_id",
+                to, from, to);
+    }
+
+    /**
+     * The product's quantity at {@code at}: the latest checkpoint at or before it plus the movements
+     * since, so at most one snapshot interval of movements is read.
+     *
+     * @return empty if the ledger has no entries for the product up to {@code at}.
+     */
+    public Optional<Integer> findQuantityAsOf(long productId, LocalDateTime at) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(
+                "SELECT as_of, quantity FROM stock_snapshot WHERE product_id = ? AND as_of <= ? ORDER BY as_of DESC LIMIT 1",
+                (rs, row) -> new Checkpoint(rs.getObject(1, LocalDateTime.class), rs.getInt(2)), productId, at);
+        if (checkpoints.isEmpty()) {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(delta), 0) FROM stock_movement WHERE product_id = ? AND created_at <= ?",
+                    (rs, row) -> rs.getLong(1) == 0 ? Optional.<Integer>empty() : Optional.of(rs.getInt(2)), productId, at);
+        }
+        Checkpoint checkpoint = checkpoints.get(0);
+        Integer since = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(delta), 0) FROM stock_movement WHERE product_id = ? AND created_at > ? AND created_at <= ?",
+                Integer.class, productId, checkpoint.asOf(), at);
+        return Optional.of(checkpoint.quantity() + (since == null ? 0 : since));
+    }
+
+    private record Checkpoint(LocalDateTime asOf, int quantity) {}
+}
@@ -1,12 +1,64 @@
 package Stock_Inventory.repository;
 
+import Stock_Inventory.dto.LowStockView;
+import Stock_Inventory.dto.StockLevelView;
+import Stock_Inventory.dto.StockVersionView;
 import Stock_Inventory.model.Stock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
     Optional<Stock> findByProduct_ProductId(Long productId);
-}
\ No newline at end of file
+
+    List<Stock> findByProduct_ProductIdIn(Collection<Long> productIds);
+
+    // Row locks are always taken in productId order so two overlapping batches cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Stock s WHERE s.product.productId IN :productIds ORDER BY s.product.productId")
+    List<Stock> findAndLockByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // Keyset page by stockId; the product is fetched in the same query because the DTO needs its id.
+    @Query("SELECT s FROM Stock s JOIN FETCH s.product WHERE s.stockId > :after ORDER BY s.stockId")
+    List<Stock> findPage(@Param("after") long after, Pageable pageable);
+
+    // Low stock, largest deficit first, keyset-paged on (deficit, stockId) so every page is a short
+    // range scan of idx_stock_deficit. The first page starts from (Integer.MAX_VALUE, Long.MAX_VALUE).
+    @Query("SELECT new Stock_Inventory.dto.LowStockView(s.stockId, s.product.productId, s.quantity, s.reorderLevel, s.deficit) FROM Stock s " +
+            "WHERE s.deficit >= 0 AND (s.deficit < :afterDeficit OR (s.deficit = :afterDeficit AND s.stockId < :afterId)) " +
+            "ORDER BY s.deficit DESC, s.stockId DESC")
+    List<LowStockView> findLowStock(@Param("afterDeficit") int afterDeficit, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT s.product.productId AS productId, s.quantity AS quantity FROM Stock s")
+    List<StockLevelView> findAllStockLevels();
+
+    @Query("SELECT s.product.productId AS productId, s.quantity AS quantity FROM Stock s WHERE s.product.productId IN :productIds")
+    List<StockLevelView> findStockLevels(@Param("productIds") Collection<Long> productIds);
+
+    // Only the version columns, so a conditional GET can answer 304 without loading the stock row.
+    @Query("SELECT new Stock_Inventory.dto.StockVersionView(s.stockId, s.product.productId, s.version, s.lastModified) FROM Stock s WHERE s.stockId = :id")
+    Optional<StockVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new Stock_Inventory.dto.StockVersionView(s.stockId, s.product.productId, s.version, s.lastModified) FROM Stock s WHERE s.product.productId = :productId")
+    Optional<StockVersionView> findVersionByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT s.quantity FROM Stock s WHERE s.product.productId = :productId")
+    Optional<Integer> findQuantityByProductId(@Param("productId") Long productId);
+
+    // Guarded decrement: the check and the write happen in one statement, so concurrent
+    // orders can never drive the quantity below zero. A negative amount adds stock.
+    // Returns the number of rows updated (0 when the stock is missing or insufficient).
+    @Modifying
+    @Query(value = "UPDATE stock SET quantity = quantity - :amount, version = version + 1 WHERE product_id = :productId AND quantity >= :amount", nativeQuery = true)
+    int decrementQuantity(@Param("productId") Long productId, @Param("amount") Integer amount);
+}
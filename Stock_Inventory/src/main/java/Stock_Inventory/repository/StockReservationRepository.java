@@ -0,0 +1,40 @@
+// src/main/java/Stock_Inventory/repository/StockReservationRepository.java
+package Stock_Inventory.repository;
+
+import Stock_Inventory.model.ReservationStatus;
+import Stock_Inventory.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Oldest expired reservations first, locked so a concurrent ship cannot commit them mid-sweep.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.status = Stock_Inventory.model.ReservationStatus.ACTIVE AND r.expiresAt <= :now ORDER BY r.reservationId")
+    List<StockReservation> findExpiredForUpdate(@Param("now") LocalDateTime now, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId AND r.status = Stock_Inventory.model.ReservationStatus.ACTIVE")
+    List<StockReservation> findActiveByOrderIdForUpdate(@Param("orderId") Long orderId);
+
+    boolean existsByOrderIdAndStatus(Long orderId, ReservationStatus status);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.orderId = :orderId AND r.status = Stock_Inventory.model.ReservationStatus.ACTIVE")
+    int finishActiveByOrderId(@Param("orderId") Long orderId, @Param("to") ReservationStatus to);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.reservationId IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("to") ReservationStatus to);
+}
@@ -2,9 +2,18 @@
 package Stock_Inventory.repository;
 
 import Stock_Inventory.model.Supplier;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
+
+    // Keyset page: seeks on the primary key, so the cost does not grow with page depth.
+    @Query("SELECT s FROM Supplier s WHERE s.supplierId > :after ORDER BY s.supplierId")
+    List<Supplier> findPage(@Param("after") long after, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+// src/main/java/Stock_Inventory/service/AsyncOrderService.java
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.AsyncOrderStatusDTO;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OrderResponseDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order acceptance. Orders are queued to one of a fixed number of single-threaded
+ * partitions, chosen by a hash of the order's lowest productId, so all orders for a hot product
+ * are applied one after another by the same worker instead of queueing on its stock row lock.
+ * Orders that span several partitions are still protected by the guarded stock UPDATE.
+ * <p>
+ * Outcomes are kept in memory for a retention window and can be polled by tracking id.
+ * Queue depth, queue lag and processing time are published as inventory.async.* metrics.
+ * <p>
+ * Accepted orders live only in the partition queues, so a graceful shutdown stops accepting new
+ * orders and then drains every queue completely before the context closes; the queue capacity
+ * bounds how long that can take. A process that is killed outright still loses what was queued.
+ */
+@Service
+public class AsyncOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncOrderService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.async.partitions:8}")
+    private int partitionCount;
+
+    @Value("${inventory.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.async.result-retention-minutes:60}")
+    private long resultRetentionMinutes;
+
+    private final List<ThreadPoolExecutor> partitions = new ArrayList<>();
+    private final Map<String, AsyncOrderStatusDTO> statuses = new ConcurrentHashMap<>();
+    private volatile boolean accepting = true;
+    private Timer lagTimer;
+    private Timer processingTimer;
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < partitionCount; i++) {
+            String partition = String.valueOf(i);
+            ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "async-order-" + partition);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            partitions.add(worker);
+            Gauge.builder("inventory.async.queue.depth", worker, w -> w.getQueue().size())
+                    .tag("partition", partition)
+                    .register(meterRegistry);
+        }
+        lagTimer = Timer.builder("inventory.async.lag")
+                .description("Time an accepted order waits in its partition queue")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        processingTimer = Timer.builder("inventory.async.processing")
+                .description("Time a worker spends placing one order")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the order and returns its tracking status.
+     *
+     * @throws RejectedExecutionException if the order's partition queue is full, or the service is shutting down.
+     */
+    public AsyncOrderStatusDTO submit(OrderCreateRequest request) {
+        if (!accepting) {
+            meterRegistry.counter("inventory.async.rejected.shutdown").increment();
+            throw new RejectedExecutionException("Async order intake is shutting down");
+        }
+        String trackingId = UUID.randomUUID().toString();
+        AsyncOrderStatusDTO status = new AsyncOrderStatusDTO(trackingId, AsyncOrderStatusDTO.State.QUEUED, null, null, LocalDateTime.now(), null);
+        statuses.put(trackingId, status);
+        long enqueuedAt = System.nanoTime();
+        try {
+            partitionFor(request).execute(() -> process(trackingId, request, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            statuses.remove(trackingId);
+            meterRegistry.counter(accepting ? "inventory.async.rejected.full" : "inventory.async.rejected.shutdown").increment();
+            throw e;
+        }
+        return status;
+    }
+
+    public Optional<AsyncOrderStatusDTO> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.get(trackingId));
+    }
+
+    private void process(String trackingId, OrderCreateRequest request, long enqueuedAt) {
+        lagTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        AsyncOrderStatusDTO.State state;
+        Long orderId = null;
+        String message = null;
+        long started = System.nanoTime();
+        try {
+            OrderResponseDTO order = concurrencyRetry.execute("createOrderAsync", () -> orderService.createOrder(request));
+            state = AsyncOrderStatusDTO.State.CREATED;
+            orderId = order.getOrderId();
+        } catch (EntityNotFoundException | IllegalArgumentException e) {
+            state = AsyncOrderStatusDTO.State.REJECTED;
+            message = e.getMessage();
+        } catch (RuntimeException e) {
+            log.warn("Async order {} failed", trackingId, e);
+            state = AsyncOrderStatusDTO.State.REJECTED;
+            message = "Order could not be placed: " + e.getMessage();
+        } finally {
+            processingTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        meterRegistry.counter("inventory.async.completed", "state", state.name()).increment();
+        // Statuses are replaced, never mutated, so readers always see a consistent snapshot.
+        statuses.put(trackingId, new AsyncOrderStatusDTO(trackingId, state, orderId, message,
+                statuses.get(trackingId).getAcceptedAt(), LocalDateTime.now()));
+    }
+
+    private ExecutorService partitionFor(OrderCreateRequest request) {
+        long key = request.getOrderItems().stream()
+                .map(OrderCreateRequest.OrderItemRequest::getProductId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .min()
+                .orElse(0L);
+        return partitions.get(Math.floorMod(Long.hashCode(key), partitionCount));
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.async.cleanup-interval-ms:60000}")
+    public void evictOldResults() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMinutes(resultRetentionMinutes));
+        statuses.values().removeIf(s -> s.getCompletedAt() != null && s.getCompletedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Stops intake, then waits for every accepted order to be processed. There is no timeout:
+     * dropping a queued order would lose an order the client was told was accepted.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+        partitions.forEach(ExecutorService::shutdown);
+        int queued = partitions.stream().mapToInt(p -> p.getQueue().size()).sum();
+        if (queued > 0) {
+            log.info("Draining {} queued async orders before shutdown", queued);
+        }
+        for (ExecutorService partition : partitions) {
+            while (!partition.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.info("Still draining async orders");
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package Stock_Inventory.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-process productId -> available quantity index for high-frequency stock polling
+ * (GET /api/stocks/availability), answered without touching the database.
+ * <p>
+ * Loaded from the stock table at startup. Every path that changes a stock quantity reports the
+ * change here, and it is applied only when its transaction commits, so rolled-back work is never
+ * visible. Relative changes are applied as deltas, which commute across concurrent transactions;
+ * only creating a stock row, or an in-memory engine set, writes an absolute value.
+ * <p>
+ * Reads are lock-free in the common case (StampedLock optimistic read); writers are serialized.
+ */
+@Component
+@DependsOn("entityManagerFactory") // The schema must exist before the initial load
+public class AvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    public static final int UNKNOWN = -1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap quantities = new LongIntHashMap(1024);
+
+    @PostConstruct
+    public void load() {
+        long stamp = lock.writeLock();
+        try {
+            quantities.clear();
+            jdbcTemplate.query("SELECT product_id, quantity FROM stock",
+                    (RowCallbackHandler) rs -> quantities.put(rs.getLong(1), rs.getInt(2)));
+            log.info("Availability index loaded {} products", quantities.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the available quantity, or {@link #UNKNOWN} if the product has no stock entry.
+     */
+    public int get(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        int quantity = quantities.get(productId, UNKNOWN);
+        if (lock.validate(stamp)) {
+            return quantity;
+        }
+        stamp = lock.readLock();
+        try {
+            return quantities.get(productId, UNKNOWN);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Looks up every product against one consistent view of the index.
+     * @return quantities in the order of {@code productIds}, {@link #UNKNOWN} where there is no stock entry.
+     */
+    public int[] get(long[] productIds) {
+        int[] result = new int[productIds.length];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            for (int i = 0; i < productIds.length; i++) {
+                result[i] = quantities.get(productIds[i], UNKNOWN);
+            }
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            for (int i = 0; i < productIds.length; i++) {
+                result[i] = quantities.get(productIds[i], UNKNOWN);
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void adjustAfterCommit(Long productId, int delta) {
+        afterCommit(() -> write(() -> quantities.addTo(productId, delta)));
+    }
+
+    public void adjustAfterCommit(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> write(() -> deltas.forEach((productId, delta) -> quantities.addTo(productId, delta))));
+    }
+
+    public void setAfterCommit(Long productId, int quantity) {
+        afterCommit(() -> write(() -> quantities.put(productId, quantity)));
+    }
+
+    public void setAfterCommit(Map<Long, Integer> levels) {
+        if (levels.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> write(() -> levels.forEach(quantities::put)));
+    }
+
+    public void removeAfterCommit(Long productId) {
+        afterCommit(() -> write(() -> quantities.remove(productId)));
+    }
+
+    private void write(Runnable change) {
+        long stamp = lock.writeLock();
+        try {
+            change.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
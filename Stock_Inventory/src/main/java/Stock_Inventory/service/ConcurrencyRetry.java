@@ -0,0 +1,62 @@
+// src/main/java/Stock_Inventory/service/ConcurrencyRetry.java
+package Stock_Inventory.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retry for transactional operations that lose a concurrency race: optimistic lock
+ * (version) conflicts, deadlocks and lock wait timeouts. Each attempt must start its own
+ * transaction, so call this from outside the @Transactional service.
+ * <p>
+ * Backoff is "full jitter": a random wait up to an exponentially growing, capped ceiling, so
+ * colliding requests spread out instead of colliding again. Conflicts, retries and exhausted
+ * retries are counted per operation (inventory.concurrency.*).
+ */
+@Component
+public class ConcurrencyRetry {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inventory.retry.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+
+    @Value("${inventory.retry.max-backoff-ms:100}")
+    private long maxBackoffMs;
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                meterRegistry.counter("inventory.concurrency.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("inventory.concurrency.retries.exhausted", "operation", operation).increment();
+                    throw e;
+                }
+                meterRegistry.counter("inventory.concurrency.retries", "operation", operation).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
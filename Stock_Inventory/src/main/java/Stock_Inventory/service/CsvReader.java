@@ -0,0 +1,114 @@
+package Stock_Inventory.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV (RFC 4180) reader: returns one record at a time, so only the current record
+ * is ever in memory. Quoted fields may contain commas, doubled quotes and line breaks; CRLF, LF and
+ * CR line endings are all accepted. A record longer than {@link #MAX_RECORD_LENGTH} characters
+ * (e.g. an unterminated quote swallowing the rest of the file) is a format error.
+ */
+final class CsvReader {
+
+    static final int MAX_RECORD_LENGTH = 65_536;
+
+    private static final int NONE = -2;
+
+    private final BufferedReader in;
+    private int line = 1;
+    private int recordLine;
+    private int pushedBack = NONE;
+
+    CsvReader(Reader in) {
+        this.in = new BufferedReader(in);
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input.
+     * @throws CsvFormatException if the record is malformed; the rest of the input cannot be trusted.
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new CsvFormatException(recordLine, "Record is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new CsvFormatException(recordLine, "Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Line on which the record last returned by next() started (1-based).
+    int recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        return in.read();
+    }
+
+    static final class CsvFormatException extends IOException {
+
+        private final int line;
+
+        CsvFormatException(int line, String message) {
+            super(message);
+            this.line = line;
+        }
+
+        int line() {
+            return line;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/Stock_Inventory/service/CustomerService.java
 package Stock_Inventory.service;
 
+import Stock_Inventory.dto.CursorPage;
 import Stock_Inventory.dto.CustomerRequest;
 import Stock_Inventory.model.Customer;
 import Stock_Inventory.repository.CustomerRepository;
@@ -8,7 +9,6 @@ import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -28,8 +28,8 @@ public class CustomerService {
         return customerRepository.save(customer);
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    public CursorPage<Customer> getCustomerPage(long after, int limit) {
+        return CursorPage.of(customerRepository.findPage(after, CursorPage.seek(limit)), limit, Customer::getCustomerId);
     }
 
     public Optional<Customer> getCustomerById(Long id) {
@@ -0,0 +1,70 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox events to a local file as newline-delimited JSON, one object per event with the
+ * payload embedded. Each batch is flushed before it is acknowledged.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.publisher.file.path")
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.outbox.publisher.file.path}")
+    private Path path;
+
+    private BufferedWriter writer;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        for (OutboxMessage message : batch) {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("eventId", message.eventId());
+            line.put("aggregateType", message.aggregateType());
+            line.put("aggregateId", message.aggregateId());
+            line.put("eventType", message.eventType().name());
+            line.put("createdAt", message.createdAt().toString());
+            line.set("payload", objectMapper.readTree(message.payload()));
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,56 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Key migration for databases created while Order, OrderItem, Product and Stock used IDENTITY
+ * columns: raises each id_generator row above the table's largest existing key, so the pooled
+ * generators never hand out an id that AUTO_INCREMENT already used. It only ever raises next_val,
+ * so it is safe to run on every startup; it runs before the application takes any traffic.
+ * The old AUTO_INCREMENT attribute can stay on the columns, since every insert now supplies its id.
+ */
+@Component
+@DependsOn("entityManagerFactory") // Schema update creates id_generator first
+public class IdGeneratorMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorMigration.class);
+
+    // id_generator segment (the table name) -> key column
+    private static final Map<String, String> KEYS = Map.of(
+            "customer_order", "order_id",
+            "order_item", "order_item_id",
+            "product", "product_id",
+            "stock", "stock_id");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        KEYS.forEach((table, key) -> {
+            Long maxKey = jdbcTemplate.queryForObject("SELECT MAX(" + key + ") FROM " + table, Long.class);
+            if (maxKey == null) {
+                return; // Empty table: Hibernate creates the row on first use
+            }
+            // A pooled generator that reads next_val = v owns the block (v - ALLOCATION_SIZE, v].
+            long floor = maxKey + IdGenerators.ALLOCATION_SIZE;
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.NAME_COLUMN + " = ?", Integer.class, table);
+            int changed = rows != null && rows > 0
+                    ? jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+                            + IdGenerators.NAME_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?", floor, table, floor)
+                    : jdbcTemplate.update("INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)", table, floor);
+            if (changed > 0) {
+                log.info("Id generator for {} now starts above existing key {}", table, maxKey);
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+// src/main/java/Stock_Inventory/service/IdempotencyKeyCache.java
+package Stock_Inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of recently used Idempotency-Key to orderId mappings, kept in front of the
+ * order_idempotency_key table so retry storms are answered without a database lookup.
+ */
+@Component
+public class IdempotencyKeyCache {
+
+    private final Map<String, Long> entries;
+
+    public IdempotencyKeyCache(@Value("${inventory.idempotency.cache-size:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Long get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, Long orderId) {
+        entries.put(key, orderId);
+    }
+
+    public synchronized void evict(String key) {
+        entries.remove(key);
+    }
+}
@@ -0,0 +1,45 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the most recent outbox events in memory; meant for tests and local runs.
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.publisher.in-memory.enabled", havingValue = "true")
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    @Value("${inventory.outbox.publisher.in-memory.capacity:10000}")
+    private int capacity;
+
+    private final ArrayDeque<OutboxMessage> messages = new ArrayDeque<>();
+
+    @Override
+    public String name() {
+        return "in-memory";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    // Oldest first.
+    public synchronized List<OutboxMessage> messages() {
+        return new ArrayList<>(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
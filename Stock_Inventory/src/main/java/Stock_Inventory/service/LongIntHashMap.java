@@ -0,0 +1,164 @@
+package Stock_Inventory.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> int hash map (linear probing, backward-shift deletion), so lookups and
+ * updates never box. Keys must be non-zero: 0 marks a free slot. Not thread-safe on its own;
+ * {@link AvailabilityIndex} guards it and relies on {@link #get} tolerating a concurrent writer.
+ */
+final class LongIntHashMap {
+
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value for the key, or {@code missing}. Safe to call while another thread writes
+     * (the result is then garbage, but it terminates and never throws); the caller must validate.
+     */
+    int get(long key, int missing) {
+        long[] k = keys;
+        int[] v = values;
+        if (k.length != v.length) {
+            return missing; // Caught mid-resize
+        }
+        int mask = k.length - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes < k.length; probes++) {
+            long current = k[slot];
+            if (current == key) {
+                return v[slot];
+            }
+            if (current == FREE) {
+                return missing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    void put(long key, int value) {
+        checkKey(key);
+        int slot = find(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) { // Keep the load factor at or below 0.5
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Adds {@code delta} to an existing entry. Absent keys are left absent.
+     * @return false if the key was absent.
+     */
+    boolean addTo(long key, int delta) {
+        checkKey(key);
+        int slot = find(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        values[slot] += delta;
+        return true;
+    }
+
+    boolean remove(long key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        int slot = find(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        // Backward-shift: pull later entries of the probe chain into the gap so lookups never need tombstones.
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        values[gap] = 0;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    // Slot holding the key, or the free slot where it would go.
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        int[] newValues = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i], mask);
+                while (newKeys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+        // Values first: a reader that sees the new keys with the old values bails out on the length check.
+        values = newValues;
+        keys = newKeys;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads sequential ids
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static void checkKey(long key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// src/main/java/Stock_Inventory/service/OrderMetrics.java
+package Stock_Inventory.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Latency breakdown for order placement.
+ * <ul>
+ *     <li>{@code inventory.order.create}: whole call, tagged by outcome and item-count bucket</li>
+ *     <li>{@code inventory.order.create.stage}: one timer per stage (customer_lookup,
+ *     product_lookup, stock_lookup, stock_deduction, order_save, reservation, idempotency,
+ *     convert_to_dto, commit), tagged by item-count bucket</li>
+ *     <li>{@code inventory.order.items}: histogram of distinct products per order</li>
+ * </ul>
+ * Timers publish percentile histograms, so p95/p99 can be computed from Prometheus.
+ */
+@Component
+public class OrderMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Bucketed so the tag has a handful of values instead of one per cart size.
+    public static String itemBucket(int itemCount) {
+        if (itemCount <= 1) {
+            return "1";
+        } else if (itemCount <= 5) {
+            return "2-5";
+        } else if (itemCount <= 20) {
+            return "6-20";
+        } else if (itemCount <= 50) {
+            return "21-50";
+        }
+        return "51+";
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public <T> T stage(String stage, String items, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return work.get();
+        } finally {
+            sample.stop(stageTimer(stage, items));
+        }
+    }
+
+    public void stage(String stage, String items, Runnable work) {
+        stage(stage, items, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void recordOrder(Timer.Sample sample, String outcome, String items, int itemCount) {
+        sample.stop(Timer.builder("inventory.order.create")
+                .description("Order placement inside the service transaction")
+                .tag("outcome", outcome)
+                .tag("items", items)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        DistributionSummary.builder("inventory.order.items")
+                .description("Distinct products per order")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(itemCount);
+    }
+
+    /**
+     * Times the commit of the current transaction (flush plus COMMIT), which happens after the
+     * service method has returned.
+     */
+    public void timeCommit(String items) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample sample;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sample = Timer.start(meterRegistry);
+            }
+
+            @Override
+            public void afterCommit() {
+                if (sample != null) {
+                    sample.stop(stageTimer("commit", items));
+                }
+            }
+        });
+    }
+
+    private Timer stageTimer(String stage, String items) {
+        return Timer.builder("inventory.order.create.stage")
+                .description("Time spent in one stage of order placement")
+                .tag("stage", stage)
+                .tag("items", items)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
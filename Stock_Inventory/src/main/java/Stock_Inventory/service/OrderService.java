@@ -1,35 +1,67 @@
 package Stock_Inventory.service;
 
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.OrderBatchResultDTO;
 import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OrderFilter;
+import Stock_Inventory.dto.OrderHeaderView;
+import Stock_Inventory.dto.OrderLineView;
 import Stock_Inventory.dto.OrderResponseDTO;
+import Stock_Inventory.dto.OutboxPayloads;
 import Stock_Inventory.model.Customer;
+import Stock_Inventory.model.IdempotencyKey;
 import Stock_Inventory.model.Order;
 import Stock_Inventory.model.OrderItem;
 import Stock_Inventory.model.Product;
 import Stock_Inventory.model.Stock;
+import Stock_Inventory.model.StockMovementReason;
 import Stock_Inventory.model.OrderStatus; // <--- IMPORTANT: Reverted to top-level import
 import Stock_Inventory.repository.CustomerRepository;
+import Stock_Inventory.repository.IdempotencyKeyRepository;
+import Stock_Inventory.repository.OrderItemRepository;
+import Stock_Inventory.repository.OrderJdbcRepository;
 import Stock_Inventory.repository.OrderRepository;
 import Stock_Inventory.repository.ProductRepository;
 import Stock_Inventory.repository.StockRepository;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
 
+    // Open bounds for the order date filters, inside the range a MySQL DATETIME can hold.
+    private static final LocalDateTime EARLIEST_ORDER_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Autowired
     private CustomerRepository customerRepository;
 
@@ -39,12 +71,46 @@ public class OrderService {
     @Autowired
     private StockRepository stockRepository;
 
-    private OrderResponseDTO convertToDto(Order order) {
+    @Autowired
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyKeyCache idempotencyKeyCache;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OrderMetrics orderMetrics;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired(required = false)
+    private StockReservationEngine stockEngine; // Only present when the in-memory engine is enabled
+
+    @Value("${inventory.order-export.chunk-size:500}")
+    private int exportChunkSize;
+
+    OrderResponseDTO convertToDto(Order order) { // Package-private for the JMH benchmarks
         OrderResponseDTO dto = new OrderResponseDTO();
         dto.setOrderId(order.getOrderId());
         dto.setOrderDate(order.getOrderDate());
         dto.setStatus(order.getStatus());
-        dto.setTotalAmount(order.calculateTotalAmount());
+        dto.setTotalAmount(order.getTotalAmount() != null ? order.getTotalAmount() : order.calculateTotalAmount());
+        dto.setItemCount(order.getItemCount() != null ? order.getItemCount() : order.getOrderItems().size());
 
         if (order.getCustomer() != null) {
             dto.setCustomerId(order.getCustomer().getCustomerId());
@@ -68,66 +134,453 @@ public class OrderService {
         return dto;
     }
 
+    // Builds responses for a batch of order headers with one query for all of their lines.
+    private List<OrderResponseDTO> toDtos(List<OrderHeaderView> headers) {
+        if (headers.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<OrderLineView>> linesByOrder = orderItemRepository.findLinesByOrderIds(
+                        headers.stream().map(OrderHeaderView::orderId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(OrderLineView::orderId));
+        return headers.stream()
+                .map(header -> toDto(header, linesByOrder.getOrDefault(header.orderId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    // Header-only response (orderItems is null); the persisted totals are all the caller gets.
+    private OrderResponseDTO toSummaryDto(OrderHeaderView header) {
+        OrderResponseDTO dto = new OrderResponseDTO();
+        dto.setOrderId(header.orderId());
+        dto.setCustomerId(header.customerId());
+        dto.setOrderDate(header.orderDate());
+        dto.setStatus(header.status());
+        dto.setTotalAmount(header.totalAmount());
+        dto.setItemCount(header.itemCount());
+        return dto;
+    }
+
+    private OrderResponseDTO toDto(OrderHeaderView header, List<OrderLineView> lines) {
+        OrderResponseDTO dto = toSummaryDto(header);
+        dto.setOrderItems(lines.stream().map(OrderLineView::toDto).collect(Collectors.toList()));
+        if (header.totalAmount() == null) { // Not backfilled yet
+            double total = 0;
+            for (OrderLineView line : lines) {
+                total += line.quantity() * line.priceAtOrder();
+            }
+            dto.setTotalAmount(total);
+            dto.setItemCount(lines.size());
+        }
+        return dto;
+    }
+
     public OrderResponseDTO createOrder(OrderCreateRequest request) {
-        Customer customer = customerRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new EntityNotFoundException("Customer not found with id: " + request.getCustomerId()));
+        return createOrder(request, null);
+    }
+
+    /**
+     * Creates an order and, when an idempotency key is given, records which order it produced.
+     * The key is claimed before any stock is touched: a concurrent request with the same key
+     * blocks on the key row and then fails with a DataIntegrityViolationException without
+     * deducting anything; callers answer it with the order the first request created.
+     */
+    public OrderResponseDTO createOrder(OrderCreateRequest request, String idempotencyKey) {
+        Map<Long, Integer> quantitiesByProduct = mergeLines(request);
+        String items = OrderMetrics.itemBucket(quantitiesByProduct.size());
+        Timer.Sample sample = orderMetrics.start();
+        String outcome = "error";
+        try {
+            OrderResponseDTO created = placeOrder(request.getCustomerId(), quantitiesByProduct, idempotencyKey, items);
+            outcome = "created";
+            return created;
+        } catch (EntityNotFoundException e) {
+            outcome = "not_found";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "insufficient_stock";
+            throw e;
+        } finally {
+            orderMetrics.recordOrder(sample, outcome, items, quantitiesByProduct.size());
+        }
+    }
+
+    private OrderResponseDTO placeOrder(Long customerId, Map<Long, Integer> quantitiesByProduct, String idempotencyKey, String items) {
+        orderMetrics.timeCommit(items);
+
+        if (idempotencyKey != null) {
+            orderMetrics.stage("idempotency", items, () -> idempotencyKeyRepository.claim(idempotencyKey, LocalDateTime.now()));
+        }
+
+        Customer customer = orderMetrics.stage("customer_lookup", items, () -> customerRepository.findById(customerId)
+                .orElseThrow(() -> new EntityNotFoundException("Customer not found with id: " + customerId)));
 
         Order order = new Order();
         order.setCustomer(customer);
         // Default status and date are handled by @PrePersist in Order.java
 
-        List<OrderItem> orderItems = new ArrayList<>();
+        // One SELECT for all products and, on the JPA path, one for all stock rows, regardless of the number of lines.
+        Map<Long, Product> products = orderMetrics.stage("product_lookup", items, () -> productRepository.findAllById(quantitiesByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity())));
+        Map<Long, Integer> stockLevels = stockEngine != null ? Map.of()
+                : orderMetrics.stage("stock_lookup", items, () -> stockRepository.findByProduct_ProductIdIn(quantitiesByProduct.keySet()).stream()
+                        .collect(Collectors.toMap(stock -> stock.getProduct().getProductId(), Stock::getQuantity)));
 
-        for (OrderCreateRequest.OrderItemRequest itemRequest : request.getOrderItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + itemRequest.getProductId()));
-
-            Stock stock = stockRepository.findByProduct_ProductId(itemRequest.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Stock entry not found for product ID: " + itemRequest.getProductId()));
-
-            if (stock.getQuantity() < itemRequest.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Available: " + stock.getQuantity() + ", Requested: " + itemRequest.getQuantity());
+        // Stock rows are always written (and so locked) in productId order, whatever the order of
+        // the cart, so two orders with overlapping products cannot deadlock each other.
+        orderMetrics.stage("stock_deduction", items, () -> {
+            for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProduct).entrySet()) {
+                Product product = products.get(line.getKey());
+                if (product == null) {
+                    throw new EntityNotFoundException("Product not found with id: " + line.getKey());
+                }
+                deductStock(product, line.getValue(), stockLevels);
             }
+        });
 
-            stock.setQuantity(stock.getQuantity() - itemRequest.getQuantity());
-            stockRepository.save(stock);
+        List<OrderItem> orderItems = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> line : quantitiesByProduct.entrySet()) {
+            Product product = products.get(line.getKey());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
-            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setQuantity(line.getValue());
             orderItem.setPriceAtOrder(product.getPrice());
             orderItem.setOrder(order);
             orderItems.add(orderItem);
         }
 
         order.setOrderItems(orderItems);
+        order.setTotalAmount(order.calculateTotalAmount());
+        order.setItemCount(orderItems.size());
 
-        Order savedOrder = orderRepository.save(order);
-        return convertToDto(savedOrder);
+        Order savedOrder = orderMetrics.stage("order_save", items, () -> orderRepository.save(order));
+        orderMetrics.stage("reservation", items, () -> stockReservationService.reserve(savedOrder.getOrderId(), quantitiesByProduct));
+        List<OutboxPayloads.OrderCreated.Line> eventLines = new ArrayList<>(quantitiesByProduct.size());
+        for (Map.Entry<Long, Integer> line : quantitiesByProduct.entrySet()) {
+            stockLedger.record(line.getKey(), -line.getValue(), StockMovementReason.ORDER, savedOrder.getOrderId());
+            eventLines.add(new OutboxPayloads.OrderCreated.Line(line.getKey(), line.getValue(), products.get(line.getKey()).getPrice()));
+        }
+        outbox.orderCreated(new OutboxPayloads.OrderCreated(savedOrder.getOrderId(), customerId, savedOrder.getTotalAmount(), eventLines));
+        if (idempotencyKey != null) {
+            idempotencyKeyRepository.assignOrder(idempotencyKey, savedOrder.getOrderId());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    idempotencyKeyCache.put(idempotencyKey, savedOrder.getOrderId());
+                }
+            });
+        }
+        return orderMetrics.stage("convert_to_dto", items, () -> convertToDto(savedOrder));
     }
 
-    public List<OrderResponseDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * Returns the order previously created with this idempotency key, checking the in-memory
+     * LRU before the database. Stock is never touched.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OrderResponseDTO> findByIdempotencyKey(String idempotencyKey) {
+        Long orderId = idempotencyKeyCache.get(idempotencyKey);
+        if (orderId == null) {
+            orderId = idempotencyKeyRepository.findById(idempotencyKey).map(IdempotencyKey::getOrderId).orElse(null);
+            if (orderId == null) {
+                return Optional.empty();
+            }
+            idempotencyKeyCache.put(idempotencyKey, orderId);
+        }
+        Optional<OrderResponseDTO> order = getOrderById(orderId);
+        if (order.isEmpty()) {
+            idempotencyKeyCache.evict(idempotencyKey); // The order was deleted since
+        }
+        return order;
     }
 
+    /**
+     * Creates many orders in one transaction. Customers, products and stock rows for the whole
+     * batch are loaded in set-based queries, stock is deducted once per product for all accepted
+     * orders, and orders and their lines are inserted as JDBC batches. Each order gets its own
+     * result; orders that cannot be placed are reported and skipped, not failed as a batch.
+     */
+    public List<OrderBatchResultDTO> createOrders(List<OrderCreateRequest> requests) {
+        List<OrderBatchResultDTO> results = new ArrayList<>(requests.size());
+        List<Map<Long, Integer>> linesPerOrder = new ArrayList<>(requests.size());
+        Set<Long> customerIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            OrderCreateRequest request = requests.get(i);
+            String violation = firstViolation(request);
+            if (violation != null) {
+                results.add(new OrderBatchResultDTO(i, OrderBatchResultDTO.Outcome.INVALID, null, violation));
+                linesPerOrder.add(null);
+                continue;
+            }
+            Map<Long, Integer> lines = mergeLines(request);
+            results.add(null);
+            linesPerOrder.add(lines);
+            customerIds.add(request.getCustomerId());
+            productIds.addAll(lines.keySet());
+        }
+
+        Set<Long> knownCustomers = customerRepository.findAllById(customerIds).stream()
+                .map(Customer::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        // On the JPA path the stock rows stay locked until commit, so these levels cannot go stale.
+        Map<Long, Integer> remaining = stockEngine != null ? null
+                : stockRepository.findAndLockByProductIds(productIds).stream()
+                        .collect(Collectors.toMap(stock -> stock.getProduct().getProductId(), Stock::getQuantity));
+
+        Map<Long, Integer> deductions = new TreeMap<>();
+        List<OrderJdbcRepository.NewOrder> newOrders = new ArrayList<>();
+        List<Integer> newOrderIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Map<Long, Integer> lines = linesPerOrder.get(i);
+            if (lines == null) {
+                continue;
+            }
+            Long customerId = requests.get(i).getCustomerId();
+            if (!knownCustomers.contains(customerId)) {
+                results.set(i, new OrderBatchResultDTO(i, OrderBatchResultDTO.Outcome.NOT_FOUND, null, "Customer not found with id: " + customerId));
+                continue;
+            }
+            String missing = findMissing(lines.keySet(), products, remaining);
+            if (missing != null) {
+                results.set(i, new OrderBatchResultDTO(i, OrderBatchResultDTO.Outcome.NOT_FOUND, null, missing));
+                continue;
+            }
+            Long shortProductId = reserveLines(lines, remaining);
+            if (shortProductId != null) {
+                results.set(i, new OrderBatchResultDTO(i, OrderBatchResultDTO.Outcome.INSUFFICIENT_STOCK, null,
+                        "Insufficient stock for product: " + products.get(shortProductId).getName()));
+                continue;
+            }
+
+            List<OrderJdbcRepository.NewOrderLine> newLines = new ArrayList<>(lines.size());
+            lines.forEach((productId, quantity) -> {
+                newLines.add(new OrderJdbcRepository.NewOrderLine(productId, quantity, products.get(productId).getPrice()));
+                deductions.merge(productId, quantity, Integer::sum);
+            });
+            newOrders.add(new OrderJdbcRepository.NewOrder(customerId, newLines));
+            newOrderIndexes.add(i);
+        }
+
+        if (remaining != null && !deductions.isEmpty() && !orderJdbcRepository.deductStock(deductions)) {
+            throw new IllegalStateException("Stock changed while the batch held its row locks");
+        }
+        availabilityIndex.adjustAfterCommit(deductions.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, deduction -> -deduction.getValue())));
+        List<Long> orderIds = orderJdbcRepository.insertOrders(newOrders);
+        orderJdbcRepository.insertReservations(orderIds, newOrders, stockReservationService.newExpiry());
+        List<OutboxPayloads.OrderCreated> events = new ArrayList<>(orderIds.size());
+        for (int n = 0; n < orderIds.size(); n++) {
+            OrderJdbcRepository.NewOrder newOrder = newOrders.get(n);
+            List<OutboxPayloads.OrderCreated.Line> eventLines = new ArrayList<>(newOrder.lines().size());
+            for (OrderJdbcRepository.NewOrderLine line : newOrder.lines()) {
+                stockLedger.record(line.productId(), -line.quantity(), StockMovementReason.ORDER, orderIds.get(n));
+                eventLines.add(new OutboxPayloads.OrderCreated.Line(line.productId(), line.quantity(), line.priceAtOrder()));
+            }
+            events.add(new OutboxPayloads.OrderCreated(orderIds.get(n), newOrder.customerId(), newOrder.totalAmount(), eventLines));
+            int index = newOrderIndexes.get(n);
+            results.set(index, new OrderBatchResultDTO(index, OrderBatchResultDTO.Outcome.CREATED, orderIds.get(n), null));
+        }
+        outbox.ordersCreated(events);
+        return results;
+    }
+
+    // Merges duplicate lines so each product is looked up and deducted exactly once.
+    private Map<Long, Integer> mergeLines(OrderCreateRequest request) {
+        Map<Long, Integer> quantitiesByProduct = new LinkedHashMap<>();
+        for (OrderCreateRequest.OrderItemRequest itemRequest : request.getOrderItems()) {
+            quantitiesByProduct.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        return quantitiesByProduct;
+    }
+
+    private String firstViolation(OrderCreateRequest request) {
+        if (request == null) {
+            return "Order must not be null";
+        }
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        for (OrderCreateRequest.OrderItemRequest item : request.getOrderItems()) {
+            if (item == null || item.getQuantity() == null) {
+                return "Each order item needs a product ID and a quantity";
+            }
+            violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                return violations.iterator().next().getMessage();
+            }
+        }
+        return null;
+    }
+
+    private String findMissing(Set<Long> productIds, Map<Long, Product> products, Map<Long, Integer> stockLevels) {
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                return "Product not found with id: " + productId;
+            }
+            boolean hasStock = stockLevels != null ? stockLevels.containsKey(productId) : stockEngine.isTracked(productId);
+            if (!hasStock) {
+                return "Stock entry not found for product ID: " + productId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes every line of one order out of the remaining stock, or none of them.
+     *
+     * @return null on success, otherwise the id of the first product that was short.
+     */
+    private Long reserveLines(Map<Long, Integer> lines, Map<Long, Integer> remaining) {
+        if (remaining != null) {
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                if (remaining.get(line.getKey()) < line.getValue()) {
+                    return line.getKey();
+                }
+            }
+            lines.forEach((productId, quantity) -> remaining.merge(productId, -quantity, Integer::sum));
+            return null;
+        }
+
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            if (!stockEngine.tryAdjust(line.getKey(), -line.getValue())) {
+                reserved.forEach((productId, quantity) -> stockEngine.tryAdjust(productId, quantity));
+                return line.getKey();
+            }
+            reserved.put(line.getKey(), line.getValue());
+        }
+        return null;
+    }
+
+    private void deductStock(Product product, int quantity, Map<Long, Integer> stockLevels) {
+        Long productId = product.getProductId();
+        if (stockEngine != null) {
+            // In-memory engine: reserved immediately, released again if this transaction rolls back.
+            if (!stockEngine.tryAdjust(productId, -quantity)) {
+                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Available: " + stockEngine.available(productId).orElse(0) + ", Requested: " + quantity);
+            }
+            availabilityIndex.adjustAfterCommit(productId, -quantity);
+            return;
+        }
+
+        Integer available = stockLevels.get(productId);
+        if (available == null) {
+            throw new EntityNotFoundException("Stock entry not found for product ID: " + productId);
+        }
+        if (available < quantity) {
+            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Available: " + available + ", Requested: " + quantity);
+        }
+
+        // The guarded UPDATE still has the final say in case another order got there first.
+        if (stockRepository.decrementQuantity(productId, quantity) == 0) {
+            Integer current = stockRepository.findQuantityByProductId(productId).orElse(0);
+            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Available: " + current + ", Requested: " + quantity);
+        }
+        availabilityIndex.adjustAfterCommit(productId, -quantity);
+    }
+
+    /**
+     * One keyset page of orders. With {@code includeItems} false the lines are not read at all and
+     * each order carries only its persisted total and item count.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponseDTO> getOrderPage(long after, int limit, boolean includeItems) {
+        CursorPage<OrderHeaderView> page = CursorPage.of(orderRepository.findHeaderPage(after, CursorPage.seek(limit)), limit, OrderHeaderView::orderId);
+        return includeItems ? new CursorPage<>(toDtos(page.getItems()), page.getNext()) : page.map(this::toSummaryDto);
+    }
+
+    /**
+     * One keyset page of orders matching the filter, ordered by (orderDate, orderId). Pass null for the
+     * first page, then the returned nextKey (orderDate) and next (orderId). The customer index is preferred when a
+     * customer is given; a status filter alone uses the status index.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponseDTO> getOrderPage(OrderFilter filter, LocalDateTime afterDate, Long afterId, int limit, boolean includeItems) {
+        LocalDateTime from = filter.from() != null ? filter.from() : EARLIEST_ORDER_DATE;
+        LocalDateTime to = filter.to() != null ? filter.to() : LATEST_ORDER_DATE;
+        LocalDateTime cursorDate = afterDate != null ? afterDate : EARLIEST_ORDER_DATE;
+        long cursorId = afterId != null ? afterId : 0L;
+        List<OrderHeaderView> rows;
+        if (filter.customerId() != null) {
+            rows = orderRepository.findHeaderPageByCustomer(filter.customerId(), filter.status(), from, to, cursorDate, cursorId, CursorPage.seek(limit));
+        } else if (filter.status() != null) {
+            rows = orderRepository.findHeaderPageByStatus(filter.status(), from, to, cursorDate, cursorId, CursorPage.seek(limit));
+        } else {
+            rows = orderRepository.findHeaderPageByDate(from, to, cursorDate, cursorId, CursorPage.seek(limit));
+        }
+        CursorPage<OrderHeaderView> page = CursorPage.of(rows, limit, OrderHeaderView::orderId, OrderHeaderView::orderDate);
+        return includeItems ? new CursorPage<>(toDtos(page.getItems()), page.getNext(), page.getNextKey()) : page.map(this::toSummaryDto);
+    }
+
+    /**
+     * Hands every order to the sink in id order, one DTO at a time. Headers are read as keyset pages
+     * of {@code inventory.order-export.chunk-size} and each page's lines with one more query; nothing is attached to the
+     * persistence context, so memory stays flat however many orders there are. The read-only
+     * transaction keeps every page on one snapshot, and no server-side cursor is held open.
+     * @return the number of orders exported.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(Consumer<OrderResponseDTO> sink) {
+        long exported = 0;
+        long after = 0;
+        List<OrderHeaderView> chunk;
+        do {
+            chunk = orderRepository.findHeaderPage(after, PageRequest.of(0, exportChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            toDtos(chunk).forEach(sink);
+            exported += chunk.size();
+            after = chunk.get(chunk.size() - 1).orderId();
+        } while (chunk.size() == exportChunkSize);
+        return exported;
+    }
+
+    @Transactional(readOnly = true)
     public Optional<OrderResponseDTO> getOrderById(Long id) {
-        return orderRepository.findById(id).map(this::convertToDto);
+        return orderRepository.findHeaderById(id).map(header -> toDtos(List.of(header)).get(0));
     }
 
     public OrderResponseDTO updateOrderStatus(Long id, OrderStatus newStatus) { // <--- Now uses the top-level enum
-        return orderRepository.findById(id).map(order -> {
+        return orderRepository.findByIdForUpdate(id).map(order -> {
+            if (order.getStatus() == OrderStatus.CANCELLED && newStatus != OrderStatus.CANCELLED) {
+                throw new IllegalStateException("Order " + id + " is cancelled and cannot move to " + newStatus);
+            }
+            if (order.getStatus() == OrderStatus.PENDING) {
+                // Leaving PENDING settles the stock held for the order: kept once it ships (DELIVERED
+                // implies shipped), returned if cancelled.
+                if (newStatus == OrderStatus.CANCELLED) {
+                    stockReservationService.release(id);
+                } else if (newStatus == OrderStatus.SHIPPED || newStatus == OrderStatus.DELIVERED) {
+                    stockReservationService.commit(id);
+                }
+            }
+            if (order.getStatus() != newStatus) {
+                outbox.orderStatusChanged(id, order.getStatus(), newStatus);
+            }
             order.setStatus(newStatus);
             Order updatedOrder = orderRepository.save(order);
             return convertToDto(updatedOrder);
         }).orElseThrow(() -> new EntityNotFoundException("Order not found with id " + id));
     }
 
+    /**
+     * Deletes the order. Stock still held for it (a PENDING order) goes back to sale in the same
+     * transaction, so the expiry sweeper never finds reservations of an order that no longer exists.
+     */
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
+        // Locked like a status change, so a concurrent ship or cancel cannot settle the reservations mid-delete.
+        if (orderRepository.findByIdForUpdate(id).isEmpty()) {
             throw new EntityNotFoundException("Order not found with id " + id);
         }
+        stockReservationService.release(id);
+        idempotencyKeyRepository.deleteByOrderId(id);
         orderRepository.deleteById(id);
     }
 }
@@ -0,0 +1,39 @@
+package Stock_Inventory.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Schema migration for databases created before OrderStatus.CANCELLED existed: the MySQL dialect
+ * created customer_order.status as a native enum('PENDING','SHIPPED','DELIVERED'), which rejects
+ * the new value, and schema update never widens an existing column. The column is turned into the
+ * varchar(20) that Order now maps, so later statuses need no migration either. A no-op once the
+ * column is a varchar (and on fresh schemas).
+ */
+@Component
+@DependsOn("entityManagerFactory") // Schema update creates customer_order first
+public class OrderStatusMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        List<String> dataType = jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns WHERE table_schema = SCHEMA()"
+                        + " AND table_name = 'customer_order' AND column_name = 'status'", String.class);
+        if (dataType.size() == 1 && "enum".equalsIgnoreCase(dataType.get(0))) {
+            jdbcTemplate.execute("ALTER TABLE customer_order MODIFY status VARCHAR(20) NOT NULL");
+            log.info("customer_order.status is now a varchar column");
+        }
+    }
+}
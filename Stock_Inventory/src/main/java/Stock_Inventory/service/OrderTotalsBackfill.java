@@ -0,0 +1,67 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills customer_order.total_amount and item_count for orders created before those columns were
+ * persisted. Works through the table in id order, one chunk per short transaction, so it never
+ * holds locks on more than a chunk of orders. Once a run finds nothing left it stops scheduling work.
+ */
+@Service
+public class OrderTotalsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderTotalsBackfill.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.order-totals.backfill-chunk-size:500}")
+    private int chunkSize;
+
+    private volatile boolean complete;
+
+    @Scheduled(initialDelayString = "${inventory.order-totals.backfill-initial-delay-ms:30000}",
+            fixedDelayString = "${inventory.order-totals.backfill-interval-ms:300000}")
+    public void scheduledBackfill() {
+        if (!complete) {
+            complete = backfill() == 0;
+        }
+    }
+
+    /**
+     * Runs one full pass over the orders that still lack totals.
+     * @return the number of orders filled in.
+     */
+    public int backfill() {
+        int filled = 0;
+        long after = 0;
+        while (true) {
+            List<Long> ids = orderRepository.findIdsMissingTotals(after, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer updated = transactionTemplate.execute(status -> orderRepository.fillTotals(ids));
+            filled += updated == null ? 0 : updated;
+            after = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        if (filled > 0) {
+            log.info("Backfilled totals for {} orders", filled);
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,71 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OutboxPayloads;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.OutboxEventType;
+import Stock_Inventory.repository.OutboxJdbcRepository;
+import Stock_Inventory.repository.OutboxJdbcRepository.NewEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes domain events to the transactional outbox. Events are inserted straight away, in the
+ * caller's transaction, so they commit or roll back together with the change they describe;
+ * OutboxRelay delivers them afterwards. Callers must already hold the lock that orders changes to
+ * the aggregate (the order or stock row), which keeps event ids in per-aggregate commit order.
+ */
+@Component
+public class Outbox {
+
+    @Autowired
+    private OutboxJdbcRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void orderCreated(OutboxPayloads.OrderCreated order) {
+        append(List.of(event(OutboxEventType.ORDER_CREATED, order.orderId(), order)));
+    }
+
+    public void ordersCreated(List<OutboxPayloads.OrderCreated> orders) {
+        List<NewEvent> events = new ArrayList<>(orders.size());
+        for (OutboxPayloads.OrderCreated order : orders) {
+            events.add(event(OutboxEventType.ORDER_CREATED, order.orderId(), order));
+        }
+        append(events);
+    }
+
+    public void orderStatusChanged(Long orderId, OrderStatus from, OrderStatus to) {
+        append(List.of(event(OutboxEventType.ORDER_STATUS_CHANGED, orderId, new OutboxPayloads.OrderStatusChanged(orderId, from, to))));
+    }
+
+    public void stockChanged(List<OutboxPayloads.StockChanged> changes) {
+        List<NewEvent> events = new ArrayList<>(changes.size());
+        for (OutboxPayloads.StockChanged change : changes) {
+            events.add(event(OutboxEventType.STOCK_CHANGED, change.productId(), change));
+        }
+        append(events);
+    }
+
+    private void append(List<NewEvent> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be written inside the transaction that makes the change");
+        }
+        outboxRepository.insertEvents(events, LocalDateTime.now());
+    }
+
+    private NewEvent event(OutboxEventType type, Long aggregateId, Object payload) {
+        try {
+            return new NewEvent(type, aggregateId, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " payload", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events. Every OutboxPublisher bean receives every event, in event id
+ * order. A batch counts as delivered only once all publishers accept it; if any throws, the whole
+ * batch is offered again on the next poll, so publishers must tolerate duplicates.
+ */
+public interface OutboxPublisher {
+
+    // Tag value for the outbox metrics.
+    String name();
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
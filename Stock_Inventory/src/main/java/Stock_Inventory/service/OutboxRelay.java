@@ -0,0 +1,151 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OutboxMessage;
+import Stock_Inventory.repository.OutboxJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the OutboxPublisher beans. Each poll reads unpublished events in event id
+ * order, hands each batch to every publisher and only then marks it published, so delivery is at
+ * least once and events of one aggregate arrive in the order they were committed. A failing
+ * publisher stops the poll; the same batch is retried on the next one. Run the relay on one
+ * instance only (inventory.outbox.relay.enabled), since two relays would interleave batches.
+ * <p>
+ * Metrics: {@code inventory.outbox.pending} (unpublished events), {@code inventory.outbox.lag}
+ * (age of the oldest unpublished event, seconds), {@code inventory.outbox.delivery} (creation to
+ * publication per event), {@code inventory.outbox.published} and
+ * {@code inventory.outbox.publish.failures} (per publisher).
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxJdbcRepository outboxRepository;
+
+    @Autowired(required = false)
+    private List<OutboxPublisher> publishers = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${inventory.outbox.max-batches-per-poll:50}")
+    private int maxBatchesPerPoll;
+
+    @Value("${inventory.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Timer delivery;
+    private Counter published;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("inventory.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+        Gauge.builder("inventory.outbox.lag", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        delivery = Timer.builder("inventory.outbox.delivery")
+                .description("Time from writing an outbox event to publishing it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        published = Counter.builder("inventory.outbox.published")
+                .description("Outbox events published")
+                .register(meterRegistry);
+        if (publishers.isEmpty()) {
+            log.warn("No outbox publishers configured; outbox events will accumulate");
+        }
+    }
+
+    /**
+     * Publishes up to max-batches-per-poll batches.
+     * @return the number of events published.
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval-ms:500}")
+    public synchronized int relay() {
+        int count = 0;
+        if (!publishers.isEmpty()) {
+            for (int n = 0; n < maxBatchesPerPoll; n++) {
+                List<OutboxMessage> batch = outboxRepository.findPending(batchSize);
+                if (batch.isEmpty() || !publish(batch)) {
+                    break;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                outboxRepository.markPublished(batch.stream().map(OutboxMessage::eventId).toList(), now);
+                for (OutboxMessage message : batch) {
+                    delivery.record(Duration.between(message.createdAt(), now));
+                }
+                published.increment(batch.size());
+                count += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+        pending.set(outboxRepository.countPending());
+        lagMillis.set(outboxRepository.findOldestPendingTime()
+                .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                .orElse(0L));
+        return count;
+    }
+
+    /**
+     * Deletes published events older than the retention period, a chunk at a time.
+     */
+    @Scheduled(fixedDelayString = "${inventory.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = outboxRepository.deletePublishedBefore(cutoff, batchSize);
+            deleted += chunk;
+        } while (chunk == batchSize);
+        if (deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private boolean publish(List<OutboxMessage> batch) {
+        for (OutboxPublisher publisher : publishers) {
+            try {
+                publisher.publish(batch);
+            } catch (Exception e) {
+                Counter.builder("inventory.outbox.publish.failures")
+                        .description("Outbox batches a publisher failed to accept")
+                        .tag("publisher", publisher.name())
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Outbox publisher {} failed on events {}..{}; retrying on the next poll", publisher.name(),
+                        batch.get(0).eventId(), batch.get(batch.size() - 1).eventId(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+}
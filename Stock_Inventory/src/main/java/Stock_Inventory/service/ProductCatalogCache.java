@@ -0,0 +1,109 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache-aside store for product catalog data (name, description, price), by id and by keyset page.
+ * Entries never carry a stock level: that changes with every order, so callers read it fresh and
+ * apply it to a copy. Cached products are detached copies and must not be modified.
+ * <p>
+ * Fills are guarded by a generation counter that every eviction bumps. A reader takes
+ * {@link #generation()} before it loads from the database and passes it to the put; a put whose
+ * load may have raced a committed write (the generation moved) is dropped, or undone if the
+ * eviction landed between the check and the put. Without this, a reader that loaded the old row
+ * before the commit could put it back after the eviction.
+ */
+@Component
+public class ProductCatalogCache {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    // Take this before loading what will be put, and pass it to put/putPage.
+    public long generation() {
+        return generation.get();
+    }
+
+    public Product get(Long productId) {
+        return products().get(productId, Product.class);
+    }
+
+    public void put(Product product, long loadedAt) {
+        guardedPut(products(), product.getProductId(), withStockLevel(product, null), loadedAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CursorPage<Product> getPage(long after, int limit) {
+        return pages().get(pageKey(after, limit), CursorPage.class);
+    }
+
+    public void putPage(long after, int limit, CursorPage<Product> page, long loadedAt) {
+        guardedPut(pages(), pageKey(after, limit), page.map(product -> withStockLevel(product, null)), loadedAt);
+    }
+
+    private void guardedPut(Cache cache, Object key, Object value, long loadedAt) {
+        if (generation.get() != loadedAt) {
+            return; // A write committed since the load started; the value may be stale
+        }
+        cache.put(key, value);
+        if (generation.get() != loadedAt) {
+            cache.evict(key); // An eviction ran between the check and the put
+        }
+    }
+
+    /**
+     * Drops the product (if given) and every cached page once the current transaction commits.
+     * The generation is bumped first, so fills that loaded before the commit are not put back.
+     */
+    public void evictAfterCommit(Long productId) {
+        Runnable evict = () -> {
+            generation.incrementAndGet();
+            if (productId != null) {
+                products().evict(productId);
+            }
+            pages().clear();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    // A fresh Product for a response or a cache entry, so cached instances are never shared or mutated.
+    public static Product withStockLevel(Product product, Integer stockLevel) {
+        return new Product(product.getProductId(), product.getName(), product.getDescription(), product.getPrice(), stockLevel,
+                product.getVersion(), product.getLastModified());
+    }
+
+    private static String pageKey(long after, int limit) {
+        return after + ":" + limit;
+    }
+
+    private Cache products() {
+        return cacheManager.getCache(PRODUCTS);
+    }
+
+    private Cache pages() {
+        return cacheManager.getCache(PRODUCT_PAGES);
+    }
+}
@@ -0,0 +1,200 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.ProductImportReportDTO;
+import Stock_Inventory.dto.ProductImportRow;
+import Stock_Inventory.model.StockMovementReason;
+import Stock_Inventory.repository.ProductJdbcRepository;
+import Stock_Inventory.repository.ProductJdbcRepository.NewProduct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk product import from CSV with the columns name, description, price, stock level and an
+ * optional reorder level (default 5); a leading header row is skipped. The input is parsed one
+ * record at a time and written in chunks of {@code inventory.import.chunk-size} rows, each in its
+ * own short transaction, so memory stays flat however large the file is. Invalid rows are reported
+ * by line and skipped; they never fail the rest of the import.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int DEFAULT_REORDER_LEVEL = 5; // Same default as createProduct
+
+    @Autowired
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired(required = false)
+    private StockReservationEngine stockEngine; // Only present when the in-memory engine is enabled
+
+    @Value("${inventory.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${inventory.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Imports every valid row of the CSV. Chunks already written stay committed if a later chunk
+     * fails or the input turns out to be malformed part-way through.
+     */
+    public ProductImportReportDTO importProducts(Reader csv) throws IOException {
+        ProductImportReportDTO report = new ProductImportReportDTO();
+        CsvReader reader = new CsvReader(csv);
+        List<NewProduct> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkLines = new ArrayList<>(chunkSize);
+        boolean first = true;
+        try {
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                if (first) {
+                    first = false;
+                    fields.set(0, stripByteOrderMark(fields.get(0)));
+                    if (fields.get(0).trim().equalsIgnoreCase("name")) {
+                        continue;
+                    }
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                report.setRowsRead(report.getRowsRead() + 1);
+                int line = reader.recordLine();
+                ProductImportRow row = new ProductImportRow();
+                String error = parse(fields, row);
+                if (error == null) {
+                    error = firstViolation(row);
+                }
+                if (error != null) {
+                    reject(report, line, error);
+                    continue;
+                }
+                chunk.add(new NewProduct(row.getName().trim(), row.getDescription(), row.getPrice(), row.getStockLevel(), row.getReorderLevel()));
+                chunkLines.add(line);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, chunkLines, report);
+                }
+            }
+        } catch (CsvReader.CsvFormatException e) {
+            reject(report, e.line(), e.getMessage() + "; the rest of the file was not imported");
+        }
+        writeChunk(chunk, chunkLines, report);
+        log.info("Product import: {} rows read, {} imported, {} rejected", report.getRowsRead(), report.getImported(), report.getRejected());
+        return report;
+    }
+
+    private void writeChunk(List<NewProduct> chunk, List<Integer> lines, ProductImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long[] productIds = productJdbcRepository.insertProducts(chunk);
+                Map<Long, Integer> levels = new HashMap<>(chunk.size() * 2);
+                for (int i = 0; i < productIds.length; i++) {
+                    levels.put(productIds[i], chunk.get(i).stockLevel());
+                    if (stockEngine != null) {
+                        stockEngine.track(productIds[i], chunk.get(i).stockLevel());
+                    }
+                }
+                availabilityIndex.setAfterCommit(levels);
+                stockLedger.recordAll(levels, StockMovementReason.INITIAL, null);
+                productCatalogCache.evictAfterCommit(null); // The new products show up on cached pages
+            });
+            report.setImported(report.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            String message = "Chunk rejected by the database: " + e.getMostSpecificCause().getMessage();
+            for (Integer line : lines) {
+                reject(report, line, message);
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    // Fills row from the CSV fields; returns an error message if a field cannot be parsed.
+    private static String parse(List<String> fields, ProductImportRow row) {
+        if (fields.size() < 4 || fields.size() > 5) {
+            return "Expected 4 or 5 columns (name, description, price, stock level[, reorder level]) but found " + fields.size();
+        }
+        row.setName(fields.get(0));
+        String description = fields.get(1);
+        row.setDescription(description.isEmpty() ? null : description);
+        try {
+            row.setPrice(parseOptional(fields.get(2), Double::valueOf));
+        } catch (NumberFormatException e) {
+            return "Product price is not a number: " + fields.get(2);
+        }
+        if (row.getPrice() != null && !Double.isFinite(row.getPrice())) {
+            return "Product price is not a number: " + fields.get(2);
+        }
+        try {
+            row.setStockLevel(parseOptional(fields.get(3), Integer::valueOf));
+        } catch (NumberFormatException e) {
+            return "Stock level is not a whole number: " + fields.get(3);
+        }
+        if (fields.size() < 5 || fields.get(4).isBlank()) {
+            row.setReorderLevel(DEFAULT_REORDER_LEVEL);
+        } else {
+            try {
+                row.setReorderLevel(Integer.valueOf(fields.get(4).trim()));
+            } catch (NumberFormatException e) {
+                return "Reorder level is not a whole number: " + fields.get(4);
+            }
+        }
+        return null;
+    }
+
+    private static <T> T parseOptional(String field, Function<String, T> parser) {
+        String trimmed = field.trim();
+        return trimmed.isEmpty() ? null : parser.apply(trimmed); // Blank is left to the @NotNull message
+    }
+
+    private String firstViolation(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private void reject(ProductImportReportDTO report, int line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ProductImportReportDTO.RowError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private static String stripByteOrderMark(String field) {
+        return !field.isEmpty() && field.charAt(0) == '\uFEFF' ? field.substring(1) : field;
+    }
+}
@@ -1,11 +1,16 @@
 // src/main/java/Stock_Inventory/service/ProductService.java
 package Stock_Inventory.service;
 
+import Stock_Inventory.dto.CursorPage;
 import Stock_Inventory.dto.ProductCreateRequest;
 import Stock_Inventory.dto.ProductUpdateRequest;
 import Stock_Inventory.dto.ProductQuantityUpdateRequest;
+import Stock_Inventory.dto.ProductStockLevel;
+import Stock_Inventory.dto.ResourceVersion;
+import Stock_Inventory.dto.StockLevelView;
 import Stock_Inventory.model.Product;
 import Stock_Inventory.model.Stock;
+import Stock_Inventory.model.StockMovementReason;
 import Stock_Inventory.repository.ProductRepository;
 import Stock_Inventory.repository.StockRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -13,8 +18,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,6 +35,18 @@ public class ProductService {
     @Autowired
     private StockRepository stockRepository;
 
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired(required = false)
+    private StockReservationEngine stockEngine; // Only present when the in-memory engine is enabled
+
     public Product createProduct(ProductCreateRequest request) {
         Product product = new Product();
         product.setName(request.getName());
@@ -39,51 +60,114 @@ public class ProductService {
         stock.setQuantity(request.getStockLevel());
         stock.setReorderLevel(5); // Set default reorder level to 5 when product is created
         stockRepository.save(stock);
+        if (stockEngine != null) {
+            stockEngine.track(savedProduct.getProductId(), stock.getQuantity());
+        }
+        availabilityIndex.setAfterCommit(savedProduct.getProductId(), stock.getQuantity());
+        stockLedger.record(savedProduct.getProductId(), stock.getQuantity(), StockMovementReason.INITIAL, null);
+
+        productCatalogCache.evictAfterCommit(null); // The new product shows up on a cached page
 
         savedProduct.setStockLevel(stock.getQuantity());
         return savedProduct;
     }
 
-    public List<Product> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        products.forEach(product -> stockRepository.findByProduct_ProductId(product.getProductId())
-                .ifPresent(stock -> product.setStockLevel(stock.getQuantity())));
-        return products;
+    // Catalog data comes from ProductCatalogCache when present; stock levels are always read fresh.
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductPage(long after, int limit) {
+        CursorPage<Product> cached = productCatalogCache.getPage(after, limit);
+        if (cached == null) {
+            long generation = productCatalogCache.generation();
+            CursorPage<ProductStockLevel> page = CursorPage.of(productRepository.findPageWithStockLevel(after, CursorPage.seek(limit)), limit, row -> row.product().getProductId());
+            productCatalogCache.putPage(after, limit, page.map(ProductStockLevel::product), generation);
+            return page.map(row -> ProductCatalogCache.withStockLevel(row.product(), currentStockLevel(row.product().getProductId(), row.quantity())));
+        }
+        Map<Long, Integer> levels = currentStockLevels(cached);
+        return cached.map(product -> ProductCatalogCache.withStockLevel(product, levels.get(product.getProductId())));
     }
 
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        Optional<Product> product = productRepository.findById(id);
-        product.ifPresent(p -> stockRepository.findByProduct_ProductId(p.getProductId())
-                .ifPresent(stock -> p.setStockLevel(stock.getQuantity())));
-        return product;
+        Product cached = productCatalogCache.get(id);
+        if (cached != null) {
+            Integer level = stockEngine != null ? currentStockLevel(id, null)
+                    : stockRepository.findQuantityByProductId(id).orElse(null);
+            return Optional.of(ProductCatalogCache.withStockLevel(cached, level));
+        }
+        long generation = productCatalogCache.generation();
+        return productRepository.findWithStockLevelById(id).map(row -> {
+            productCatalogCache.put(row.product(), generation);
+            return ProductCatalogCache.withStockLevel(row.product(), currentStockLevel(id, row.quantity()));
+        });
+    }
+
+    /**
+     * ETag and Last-Modified of GET /api/products/{id}, read from the version columns only. The stock
+     * version is part of the ETag because the response carries the stock level. With the in-memory engine
+     * the level moves ahead of the row, so the live quantity joins the ETag and Last-Modified is dropped.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getProductVersion(Long id) {
+        return productRepository.findVersionById(id).map(view -> {
+            if (stockEngine != null) {
+                return ResourceVersion.of(null, view.productVersion(), view.stockVersion(), currentStockLevel(id, null));
+            }
+            return ResourceVersion.of(view.lastModified(), view.productVersion(), view.stockVersion());
+        });
+    }
+
+    // The engine is authoritative when enabled; the stock row may not have been flushed yet.
+    private Integer currentStockLevel(Long productId, Integer storedLevel) {
+        if (stockEngine == null) {
+            return storedLevel;
+        }
+        OptionalInt available = stockEngine.available(productId);
+        return available.isPresent() ? available.getAsInt() : storedLevel;
+    }
+
+    private Map<Long, Integer> currentStockLevels(CursorPage<Product> page) {
+        List<Long> productIds = page.getItems().stream().map(Product::getProductId).collect(Collectors.toList());
+        if (stockEngine != null) {
+            Map<Long, Integer> levels = new HashMap<>();
+            productIds.forEach(id -> levels.put(id, currentStockLevel(id, null)));
+            return levels;
+        }
+        return productIds.isEmpty() ? Map.of() : stockRepository.findStockLevels(productIds).stream()
+                .collect(Collectors.toMap(StockLevelView::getProductId, StockLevelView::getQuantity));
     }
 
     public Product updateProduct(Long id, ProductUpdateRequest request) {
-        return productRepository.findById(id).map(product -> {
+        return productRepository.findWithStockLevelById(id).map(row -> {
+            Product product = row.withStockLevel();
             product.setName(request.getName());
             product.setDescription(request.getDescription());
             product.setPrice(request.getPrice());
-
-            Product updatedProduct = productRepository.save(product);
-            stockRepository.findByProduct_ProductId(updatedProduct.getProductId())
-                    .ifPresent(stock -> updatedProduct.setStockLevel(stock.getQuantity()));
-            return updatedProduct;
+            productCatalogCache.evictAfterCommit(id);
+            return productRepository.save(product);
         }).orElseThrow(() -> new EntityNotFoundException("Product not found with id " + id));
     }
 
     public Product updateProductQuantity(Long productId, ProductQuantityUpdateRequest request) {
         return productRepository.findById(productId).map(product -> {
-            Stock stock = stockRepository.findByProduct_ProductId(productId)
-                    .orElseThrow(() -> new EntityNotFoundException("Stock entry not found for product id " + productId));
+            if (stockEngine != null) {
+                if (!stockEngine.tryAdjust(productId, request.getQuantityChange())) {
+                    throw new IllegalArgumentException("Stock quantity cannot be negative for product: " + product.getName() + ". Attempted change: " + request.getQuantityChange() + ", Current stock: " + stockEngine.available(productId).orElse(0));
+                }
+                availabilityIndex.adjustAfterCommit(productId, request.getQuantityChange());
+                stockLedger.record(productId, request.getQuantityChange(), StockMovementReason.ADJUSTMENT, null);
+                product.setStockLevel(stockEngine.available(productId).orElse(0));
+                return product;
+            }
 
-            int newQuantity = stock.getQuantity() + request.getQuantityChange();
-            if (newQuantity < 0) {
-                throw new IllegalArgumentException("Stock quantity cannot be negative for product: " + product.getName() + ". Attempted change: " + request.getQuantityChange() + ", Current stock: " + stock.getQuantity());
+            if (stockRepository.decrementQuantity(productId, -request.getQuantityChange()) == 0) {
+                Integer current = stockRepository.findQuantityByProductId(productId)
+                        .orElseThrow(() -> new EntityNotFoundException("Stock entry not found for product id " + productId));
+                throw new IllegalArgumentException("Stock quantity cannot be negative for product: " + product.getName() + ". Attempted change: " + request.getQuantityChange() + ", Current stock: " + current);
             }
-            stock.setQuantity(newQuantity);
-            stockRepository.save(stock);
 
-            product.setStockLevel(newQuantity);
+            availabilityIndex.adjustAfterCommit(productId, request.getQuantityChange());
+            stockLedger.record(productId, request.getQuantityChange(), StockMovementReason.ADJUSTMENT, null);
+            product.setStockLevel(stockRepository.findQuantityByProductId(productId).orElse(null));
             return product;
         }).orElseThrow(() -> new EntityNotFoundException("Product not found with id " + productId));
     }
@@ -92,8 +176,17 @@ public class ProductService {
         if (!productRepository.existsById(id)) {
             throw new EntityNotFoundException("Product not found with id " + id);
         }
-        stockRepository.findByProduct_ProductId(id).ifPresent(stockRepository::delete);
+        stockRepository.findByProduct_ProductId(id).ifPresent(stock -> {
+            int remaining = stockEngine != null ? stockEngine.available(id).orElse(stock.getQuantity()) : stock.getQuantity();
+            stockLedger.record(id, -remaining, StockMovementReason.REMOVED, null);
+            stockRepository.delete(stock);
+        });
         productRepository.deleteById(id);
+        productCatalogCache.evictAfterCommit(id);
+        availabilityIndex.removeAfterCommit(id);
+        if (stockEngine != null) {
+            stockEngine.untrack(id);
+        }
     }
 }
 
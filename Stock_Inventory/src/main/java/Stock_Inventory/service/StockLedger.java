@@ -0,0 +1,146 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.OutboxPayloads;
+import Stock_Inventory.model.StockMovementReason;
+import Stock_Inventory.repository.StockLedgerJdbcRepository;
+import Stock_Inventory.repository.StockLedgerJdbcRepository.NewMovement;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Append-only stock ledger. Every path that changes a stock quantity records the signed change
+ * here; the changes are buffered per transaction and written as one JDBC batch just before it
+ * commits, so a rolled-back change never reaches the ledger and a committed one always does.
+ * Each movement also goes to the outbox as a STOCK_CHANGED event, in the same transaction.
+ * <p>
+ * A scheduled job folds movements into per-product checkpoints (stock_snapshot), so "quantity as of
+ * T" reads one checkpoint plus at most one snapshot interval of movements. Movements are stamped
+ * when their transaction is about to commit; the job stays {@code snapshot-settle-seconds} behind
+ * the clock so it never checkpoints past a movement that is stamped but not yet committed.
+ */
+@Component
+@DependsOn("entityManagerFactory") // The schema must exist before the ledger is opened
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    @Autowired
+    private StockLedgerJdbcRepository ledgerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Value("${inventory.ledger.snapshot-settle-seconds:60}")
+    private long settleSeconds;
+
+    /**
+     * On a database that predates the ledger, carries each stock row's quantity over as an OPENING
+     * movement. Does nothing once the ledger has any entries.
+     */
+    @PostConstruct
+    public void open() {
+        int opened = transactionTemplate.execute(status -> ledgerRepository.insertOpeningBalances(LocalDateTime.now()));
+        if (opened > 0) {
+            log.info("Stock ledger opened with balances for {} products", opened);
+        }
+    }
+
+    /**
+     * Records a change to one product's quantity in the current transaction. Zero changes are dropped.
+     *
+     * @throws IllegalStateException if no transaction is active.
+     */
+    public void record(Long productId, int delta, StockMovementReason reason, Long orderId) {
+        if (delta != 0) {
+            pending().add(new NewMovement(productId, delta, reason, orderId));
+        }
+    }
+
+    public void recordAll(Map<Long, Integer> deltas, StockMovementReason reason, Long orderId) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<NewMovement> pending = pending();
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                pending.add(new NewMovement(productId, delta, reason, orderId));
+            }
+        });
+    }
+
+    /**
+     * @return the product's quantity according to the ledger at {@code at}, or empty if the ledger
+     *         has no entries for it by then.
+     */
+    public Optional<Integer> quantityAsOf(Long productId, LocalDateTime at) {
+        return ledgerRepository.findQuantityAsOf(productId, at);
+    }
+
+    /**
+     * Checkpoints every product that moved since the previous run.
+     * @return the number of checkpoints written.
+     */
+    @Scheduled(initialDelayString = "${inventory.ledger.snapshot-interval-ms:900000}",
+            fixedDelayString = "${inventory.ledger.snapshot-interval-ms:900000}")
+    public int snapshot() {
+        LocalDateTime to = LocalDateTime.now().minusSeconds(settleSeconds);
+        // Runs cover back-to-back windows; a run with nothing to write leaves its window to the next one.
+        LocalDateTime from = ledgerRepository.findLastSnapshotTime().orElse(LEDGER_START);
+        if (!to.isAfter(from)) {
+            return 0;
+        }
+        Integer written = transactionTemplate.execute(status -> ledgerRepository.insertSnapshots(from, to));
+        if (written != null && written > 0) {
+            log.info("Stock ledger checkpointed {} products as of {}", written, to);
+        }
+        return written == null ? 0 : written;
+    }
+
+    private List<NewMovement> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock movements must be recorded inside a transaction");
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingMovements pending) {
+                return pending.movements;
+            }
+        }
+        PendingMovements pending = new PendingMovements();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.movements;
+    }
+
+    // Registered once per transaction; suspended and resumed along with it.
+    private final class PendingMovements implements TransactionSynchronization {
+
+        private final List<NewMovement> movements = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            ledgerRepository.insertMovements(movements, LocalDateTime.now());
+            outbox.stockChanged(movements.stream()
+                    .map(movement -> new OutboxPayloads.StockChanged(movement.productId(), movement.delta(), movement.reason(), movement.orderId()))
+                    .toList());
+        }
+    }
+}
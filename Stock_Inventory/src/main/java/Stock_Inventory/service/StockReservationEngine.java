@@ -0,0 +1,266 @@
+// src/main/java/Stock_Inventory/service/StockReservationEngine.java
+package Stock_Inventory.service;
+
+import Stock_Inventory.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional in-memory stock engine (inventory.engine.in-memory.enabled=true).
+ * <p>
+ * Holds the authoritative available quantity per product in memory, guarded by a fixed set of
+ * lock stripes, so hot products never wait on MySQL row locks. Every change is also recorded as a
+ * pending delta; a scheduled flusher coalesces those deltas and writes them back to the stock
+ * table in JDBC batches. Counters are rebuilt from the database at startup.
+ * <p>
+ * Because the database only ever receives relative updates, writes made here and by the flusher
+ * never overwrite each other. Deltas not yet flushed are lost if the process dies.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.engine.in-memory.enabled", havingValue = "true")
+public class StockReservationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationEngine.class);
+
+    private static final int STRIPES = 64; // Must be a power of two
+    private static final String FLUSH_SQL = "UPDATE stock SET quantity = quantity + ?, version = version + 1 WHERE product_id = ?";
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.engine.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final Object[] locks = new Object[STRIPES];
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public StockReservationEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private static final class Counter {
+        int available;
+        int pendingDelta;
+
+        Counter(int available) {
+            this.available = available;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Flushes outstanding deltas and rebuilds every counter from the stock table.
+     */
+    public synchronized void reload() {
+        flush();
+        Map<Long, Counter> loaded = new ConcurrentHashMap<>();
+        stockRepository.findAllStockLevels()
+                .forEach(level -> loaded.put(level.getProductId(), new Counter(level.getQuantity())));
+        counters.clear();
+        counters.putAll(loaded);
+        log.info("Stock reservation engine loaded {} products", loaded.size());
+    }
+
+    public boolean isTracked(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    public OptionalInt available(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return OptionalInt.empty();
+        }
+        synchronized (lockFor(productId)) {
+            return OptionalInt.of(counter.available);
+        }
+    }
+
+    /**
+     * Applies a quantity change if it keeps the product at or above zero. A negative delta
+     * reserves stock, a positive one returns it. When called inside a transaction the change is
+     * undone automatically if that transaction does not commit.
+     *
+     * @return false if the change would make the quantity negative.
+     * @throws EntityNotFoundException if the product has no stock entry.
+     */
+    public boolean tryAdjust(Long productId, int delta) {
+        if (!apply(productId, delta, true)) {
+            return false;
+        }
+        compensateOnRollback(productId, delta);
+        return true;
+    }
+
+    /**
+     * Sets an absolute quantity. It is recorded as a delta against the current in-memory value so
+     * the write-behind flush stays purely relative.
+     *
+     * @return that delta: the new quantity minus the one it replaced.
+     */
+    public int set(Long productId, int quantity) {
+        Counter counter = requireCounter(productId);
+        int delta;
+        synchronized (lockFor(productId)) {
+            delta = quantity - counter.available;
+            counter.available = quantity;
+            counter.pendingDelta += delta;
+        }
+        dirty.add(productId);
+        compensateOnRollback(productId, delta);
+        return delta;
+    }
+
+    /**
+     * Starts tracking a newly created stock row once the creating transaction commits.
+     */
+    public void track(Long productId, int quantity) {
+        afterCommit(() -> counters.put(productId, new Counter(quantity)));
+    }
+
+    /**
+     * Stops tracking a deleted stock row once the deleting transaction commits. Unflushed deltas
+     * for it are dropped.
+     */
+    public void untrack(Long productId) {
+        afterCommit(() -> {
+            counters.remove(productId);
+            dirty.remove(productId);
+        });
+    }
+
+    /**
+     * Writes coalesced pending deltas back to the stock table, one JDBC batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${inventory.engine.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Object[]> pending = new ArrayList<>();
+        for (Long productId : dirty) {
+            dirty.remove(productId);
+            Counter counter = counters.get(productId);
+            if (counter == null) {
+                continue;
+            }
+            int delta;
+            synchronized (lockFor(productId)) {
+                delta = counter.pendingDelta;
+                counter.pendingDelta = 0;
+            }
+            if (delta != 0) {
+                pending.add(new Object[]{delta, productId});
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += flushBatchSize) {
+            List<Object[]> batch = pending.subList(from, Math.min(from + flushBatchSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            } catch (RuntimeException e) {
+                log.warn("Stock flush of {} products failed, will retry: {}", batch.size(), e.getMessage());
+                batch.forEach(args -> requeue((Long) args[1], (Integer) args[0]));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean apply(Long productId, int delta, boolean guarded) {
+        Counter counter = requireCounter(productId);
+        synchronized (lockFor(productId)) {
+            if (guarded && counter.available + delta < 0) {
+                return false;
+            }
+            counter.available += delta;
+            counter.pendingDelta += delta;
+        }
+        dirty.add(productId);
+        return true;
+    }
+
+    private void requeue(Long productId, int delta) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return;
+        }
+        synchronized (lockFor(productId)) {
+            counter.pendingDelta += delta;
+        }
+        dirty.add(productId);
+    }
+
+    private Counter requireCounter(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            throw new EntityNotFoundException("Stock entry not found for product ID: " + productId);
+        }
+        return counter;
+    }
+
+    private Object lockFor(Long productId) {
+        return locks[Long.hashCode(productId) & (STRIPES - 1)];
+    }
+
+    private void compensateOnRollback(Long productId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && counters.containsKey(productId)) {
+                    apply(productId, -delta, false);
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,185 @@
+// src/main/java/Stock_Inventory/service/StockReservationService.java
+package Stock_Inventory.service;
+
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.ReservationStatus;
+import Stock_Inventory.model.StockMovementReason;
+import Stock_Inventory.model.StockReservation;
+import Stock_Inventory.repository.OrderJdbcRepository;
+import Stock_Inventory.repository.OrderRepository;
+import Stock_Inventory.repository.StockJdbcRepository;
+import Stock_Inventory.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reserve, commit, expire lifecycle for the stock held by PENDING orders.
+ * <p>
+ * Placing an order takes the quantity out of {@code stock.quantity} (the amount still available
+ * to sell) and records an ACTIVE reservation. Shipping (or going straight to DELIVERED) commits
+ * the reservation without touching the stock row. Cancelling returns the quantity to stock. On-hand
+ * stock is therefore {@code stock.quantity} plus the product's ACTIVE reservations.
+ * <p>
+ * Reservations not committed within {@code inventory.reservation.ttl-minutes} expire: the sweeper
+ * returns them to stock and cancels their still-PENDING order. Setting
+ * {@code inventory.reservation.expiry-enabled=false} turns the sweeper off.
+ */
+@Service
+@Transactional
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired(required = false)
+    private StockReservationEngine stockEngine; // Only present when the in-memory engine is enabled
+
+    @Value("${inventory.reservation.expiry-enabled:true}")
+    private boolean expiryEnabled;
+
+    @Value("${inventory.reservation.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${inventory.reservation.sweep-chunk-size:200}")
+    private int sweepChunkSize;
+
+    @Value("${inventory.reservation.sweep-max-chunks:50}")
+    private int sweepMaxChunks;
+
+    public LocalDateTime newExpiry() {
+        return LocalDateTime.now().plusMinutes(ttlMinutes);
+    }
+
+    /**
+     * Records ACTIVE reservations for stock the caller has already deducted for this order.
+     */
+    public void reserve(Long orderId, Map<Long, Integer> quantitiesByProduct) {
+        // One JDBC batch: the IDENTITY key would make saveAll() issue an INSERT per line.
+        orderJdbcRepository.insertReservations(orderId, quantitiesByProduct, newExpiry());
+    }
+
+    /**
+     * Makes the order's held stock permanent (the order shipped).
+     *
+     * @throws IllegalStateException if the order's reservations already expired.
+     */
+    public void commit(Long orderId) {
+        if (reservationRepository.finishActiveByOrderId(orderId, ReservationStatus.COMMITTED) == 0
+                && reservationRepository.existsByOrderIdAndStatus(orderId, ReservationStatus.EXPIRED)) {
+            throw new IllegalStateException("Stock reservation for order " + orderId + " has expired");
+        }
+    }
+
+    /**
+     * Returns the order's held stock to sale (the order was cancelled).
+     */
+    public void release(Long orderId) {
+        List<StockReservation> active = reservationRepository.findActiveByOrderIdForUpdate(orderId);
+        finish(active, ReservationStatus.RELEASED);
+    }
+
+    /**
+     * Releases expired reservations in bounded chunks and cancels their orders. Each chunk is its
+     * own short transaction, so the stock rows it touches are only locked for one batched UPDATE.
+     * Does nothing when expiry is disabled.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sweepExpired() {
+        if (!expiryEnabled) {
+            return;
+        }
+        int released = 0;
+        for (int chunk = 0; chunk < sweepMaxChunks; chunk++) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<StockReservation> expired = reservationRepository.findExpiredForUpdate(
+                        LocalDateTime.now(), PageRequest.of(0, sweepChunkSize));
+                finish(expired, ReservationStatus.EXPIRED);
+                Set<Long> orderIds = expired.stream().map(StockReservation::getOrderId).collect(Collectors.toSet());
+                if (!orderIds.isEmpty()) {
+                    orderRepository.updateStatus(orderIds, OrderStatus.PENDING, OrderStatus.CANCELLED);
+                    // An ACTIVE reservation means the order was still PENDING; the locks taken above keep it so.
+                    orderIds.forEach(orderId -> outbox.orderStatusChanged(orderId, OrderStatus.PENDING, OrderStatus.CANCELLED));
+                }
+                return expired.size();
+            });
+            released += count == null ? 0 : count;
+            if (count == null || count < sweepChunkSize) {
+                break;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    private void finish(List<StockReservation> reservations, ReservationStatus outcome) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        reservationRepository.updateStatus(
+                reservations.stream().map(StockReservation::getReservationId).collect(Collectors.toList()), outcome);
+
+        Map<Long, Integer> restock = new TreeMap<>();
+        reservations.forEach(r -> restock.merge(r.getProductId(), r.getQuantity(), Integer::sum));
+        Set<Long> missing = new HashSet<>();
+        if (stockEngine != null) {
+            restock.forEach((productId, quantity) -> {
+                if (stockEngine.isTracked(productId)) {
+                    stockEngine.tryAdjust(productId, quantity);
+                } else {
+                    missing.add(productId);
+                }
+            });
+        } else {
+            missing.addAll(stockJdbcRepository.addQuantities(restock));
+        }
+        availabilityIndex.adjustAfterCommit(restock);
+        // Stock deleted since the order was placed gets nothing back, so there is no movement for it.
+        StockMovementReason reason = outcome == ReservationStatus.EXPIRED ? StockMovementReason.RESERVATION_EXPIRED : StockMovementReason.ORDER_CANCELLED;
+        for (StockReservation reservation : reservations) {
+            if (!missing.contains(reservation.getProductId())) {
+                stockLedger.record(reservation.getProductId(), reservation.getQuantity(), reason, reservation.getOrderId());
+            }
+        }
+    }
+}
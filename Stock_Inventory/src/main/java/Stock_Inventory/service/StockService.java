@@ -1,21 +1,39 @@
 // src/main/java/Stock_Inventory/service/StockService.java
 package Stock_Inventory.service;
 
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.LowStockView;
 import Stock_Inventory.dto.StockAddRequest;
+import Stock_Inventory.dto.StockAdjustmentRequest;
+import Stock_Inventory.dto.StockBulkAdjustResultDTO;
+import Stock_Inventory.dto.StockBulkAdjustResultDTO.Reason;
+import Stock_Inventory.dto.StockLedgerView;
+import Stock_Inventory.dto.ResourceVersion;
+import Stock_Inventory.dto.StockAvailabilityDTO;
 import Stock_Inventory.dto.StockUpdateRequest;
 import Stock_Inventory.dto.StockResponseDTO; // Ensure this is imported
+import Stock_Inventory.dto.StockVersionView;
 import Stock_Inventory.model.Product;
 import Stock_Inventory.model.Stock;
+import Stock_Inventory.model.StockMovementReason;
 import Stock_Inventory.repository.ProductRepository;
+import Stock_Inventory.repository.StockJdbcRepository;
 import Stock_Inventory.repository.StockRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalInt;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -24,17 +42,33 @@ public class StockService {
     @Autowired
     private StockRepository stockRepository;
 
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired(required = false)
+    private StockReservationEngine stockEngine; // Only present when the in-memory engine is enabled
+
     // Helper method to map Stock entity to StockResponseDTO
-    private StockResponseDTO convertToDto(Stock stock) {
+    StockResponseDTO convertToDto(Stock stock) { // Package-private for the JMH benchmarks
         StockResponseDTO dto = new StockResponseDTO();
         dto.setStockId(stock.getStockId());
         dto.setQuantity(stock.getQuantity());
         dto.setReorderLevel(stock.getReorderLevel());
         if (stock.getProduct() != null) {
             dto.setProductId(stock.getProduct().getProductId());
+            if (stockEngine != null) {
+                // The engine is authoritative; the row may not have been flushed yet.
+                stockEngine.available(dto.getProductId()).ifPresent(dto::setQuantity);
+            }
         }
         return dto;
     }
@@ -53,13 +87,76 @@ public class StockService {
         stock.setQuantity(request.getQuantity());
         stock.setReorderLevel(request.getReorderLevel());
         Stock savedStock = stockRepository.save(stock); // Save the entity
+        if (stockEngine != null) {
+            stockEngine.track(product.getProductId(), savedStock.getQuantity());
+        }
+        availabilityIndex.setAfterCommit(product.getProductId(), savedStock.getQuantity());
+        stockLedger.record(product.getProductId(), savedStock.getQuantity(), StockMovementReason.INITIAL, null);
         return convertToDto(savedStock); // Convert to DTO before returning
     }
 
-    public List<StockResponseDTO> getAllStocks() {
-        return stockRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPage<StockResponseDTO> getStockPage(long after, int limit) {
+        return CursorPage.of(stockRepository.findPage(after, CursorPage.seek(limit)), limit, Stock::getStockId)
+                .map(this::convertToDto);
+    }
+
+    /**
+     * Stock at or below its reorder level, largest deficit first. Pass null for the first page, then the
+     * returned nextKey (deficit) and next (stockId). Quantities are as stored, so with the in-memory engine enabled
+     * they can trail the live values by up to one flush interval.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LowStockView> getLowStockPage(Integer afterDeficit, Long afterId, int limit) {
+        List<LowStockView> rows = stockRepository.findLowStock(afterDeficit != null ? afterDeficit : Integer.MAX_VALUE,
+                afterId != null ? afterId : Long.MAX_VALUE, CursorPage.seek(limit));
+        return CursorPage.of(rows, limit, LowStockView::stockId, LowStockView::deficit);
+    }
+
+    /**
+     * Answers from the AvailabilityIndex only: no transaction, no database round trip.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockAvailabilityDTO getAvailability(long[] productIds) {
+        int[] quantities = availabilityIndex.get(productIds);
+        int known = 0;
+        for (int quantity : quantities) {
+            if (quantity != AvailabilityIndex.UNKNOWN) {
+                known++;
+            }
+        }
+        long[] knownIds = new long[known];
+        int[] available = new int[known];
+        long[] unknownIds = new long[productIds.length - known];
+        for (int i = 0, k = 0, u = 0; i < productIds.length; i++) {
+            if (quantities[i] == AvailabilityIndex.UNKNOWN) {
+                unknownIds[u++] = productIds[i];
+            } else {
+                knownIds[k] = productIds[i];
+                available[k++] = quantities[i];
+            }
+        }
+        return new StockAvailabilityDTO(knownIds, available, unknownIds);
+    }
+
+    /**
+     * The product's quantity from the ledger as of {@code at}, or now when {@code at} is null; the
+     * current value is also reconciled against the live quantity.
+     *
+     * @return empty if the ledger has nothing for the product by then.
+     */
+    @Transactional(readOnly = true)
+    public Optional<StockLedgerView> getLedgerQuantity(Long productId, LocalDateTime at) {
+        LocalDateTime asOf = at != null ? at : LocalDateTime.now();
+        Optional<Integer> ledgerQuantity = stockLedger.quantityAsOf(productId, asOf);
+        if (ledgerQuantity.isEmpty() || at != null) {
+            return ledgerQuantity.map(quantity -> new StockLedgerView(productId, asOf, quantity, null, null));
+        }
+        Optional<Integer> live = stockEngine != null && stockEngine.isTracked(productId)
+                ? Optional.of(stockEngine.available(productId).orElse(0))
+                : stockRepository.findQuantityByProductId(productId);
+        return Optional.of(live
+                .map(quantity -> new StockLedgerView(productId, asOf, ledgerQuantity.get(), quantity, quantity - ledgerQuantity.get()))
+                .orElseGet(() -> new StockLedgerView(productId, asOf, ledgerQuantity.get(), null, null)));
     }
 
     public Optional<StockResponseDTO> getStockById(Long id) {
@@ -70,13 +167,42 @@ public class StockService {
         return stockRepository.findByProduct_ProductId(productId).map(this::convertToDto);
     }
 
+    // ETag and Last-Modified for the stock GETs, from the version columns only (see ProductService.getProductVersion).
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getStockVersion(Long id) {
+        return stockRepository.findVersionById(id).map(this::toResourceVersion);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getStockVersionByProductId(Long productId) {
+        return stockRepository.findVersionByProductId(productId).map(this::toResourceVersion);
+    }
+
+    private ResourceVersion toResourceVersion(StockVersionView view) {
+        if (stockEngine != null) {
+            // The engine changes quantities ahead of the row, so its live value is part of the ETag.
+            OptionalInt available = stockEngine.available(view.productId());
+            return ResourceVersion.of(null, view.version(), available.isPresent() ? available.getAsInt() : null);
+        }
+        return ResourceVersion.of(view.lastModified(), view.version());
+    }
+
     // Now returns StockResponseDTO
     public StockResponseDTO updateStock(Long id, StockUpdateRequest request) {
         return stockRepository.findById(id).map(stock -> {
             if (!stock.getProduct().getProductId().equals(request.getProductId())) {
                 throw new IllegalArgumentException("Product ID in request (" + request.getProductId() + ") does not match product ID of stock entry (" + stock.getProduct().getProductId() + ").");
             }
-            stock.setQuantity(request.getQuantity());
+            if (stockEngine != null) {
+                int delta = stockEngine.set(request.getProductId(), request.getQuantity());
+                availabilityIndex.setAfterCommit(request.getProductId(), request.getQuantity());
+                stockLedger.record(request.getProductId(), delta, StockMovementReason.ADJUSTMENT, null);
+            } else {
+                // A delta rather than the new value: the version check means nothing else changed it in between.
+                availabilityIndex.adjustAfterCommit(request.getProductId(), request.getQuantity() - stock.getQuantity());
+                stockLedger.record(request.getProductId(), request.getQuantity() - stock.getQuantity(), StockMovementReason.ADJUSTMENT, null);
+                stock.setQuantity(request.getQuantity());
+            }
             stock.setReorderLevel(request.getReorderLevel());
             Stock updatedStock = stockRepository.save(stock); // Save the entity
             return convertToDto(updatedStock); // Convert to DTO before returning
@@ -88,11 +214,134 @@ public class StockService {
     public StockResponseDTO updateStockQuantity(Long productId, Integer newQuantity) {
         Stock stock = stockRepository.findByProduct_ProductId(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Stock not found for product ID: " + productId));
+        if (stockEngine != null) {
+            int delta = stockEngine.set(productId, newQuantity);
+            availabilityIndex.setAfterCommit(productId, newQuantity);
+            stockLedger.record(productId, delta, StockMovementReason.ADJUSTMENT, null);
+            return convertToDto(stock);
+        }
+        availabilityIndex.adjustAfterCommit(productId, newQuantity - stock.getQuantity());
+        stockLedger.record(productId, newQuantity - stock.getQuantity(), StockMovementReason.ADJUSTMENT, null);
         stock.setQuantity(newQuantity);
         Stock updatedStock = stockRepository.save(stock); // Save the entity
         return convertToDto(updatedStock); // Convert to DTO before returning
     }
 
+    /**
+     * Applies a whole cycle count in one transaction. Every stock row in the set is locked up front
+     * in productId order (one SELECT ... FOR UPDATE per 1000 ids), each entry is turned into a delta
+     * against the locked quantity, and the deltas go out as one guarded JDBC batch. Entries that are
+     * invalid, name a product without stock, or would leave a negative quantity are rejected
+     * individually; the rest are applied.
+     */
+    public StockBulkAdjustResultDTO bulkAdjust(List<StockAdjustmentRequest> adjustments) {
+        StockBulkAdjustResultDTO result = new StockBulkAdjustResultDTO();
+        Map<Long, Integer> indexByProduct = new LinkedHashMap<>();
+        Set<Long> duplicates = new HashSet<>();
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentRequest adjustment = adjustments.get(i);
+            String error = invalidAdjustment(adjustment);
+            if (error == null && indexByProduct.putIfAbsent(adjustment.getProductId(), i) != null) {
+                duplicates.add(adjustment.getProductId());
+                error = "Product ID " + adjustment.getProductId() + " appears more than once";
+            }
+            if (error != null) {
+                reject(result, i, adjustment == null ? null : adjustment.getProductId(), Reason.INVALID, error);
+            }
+        }
+        for (Long productId : duplicates) {
+            // Which of the entries was meant is unknowable, so none of them is applied.
+            int index = indexByProduct.remove(productId);
+            reject(result, index, productId, Reason.INVALID, "Product ID " + productId + " appears more than once");
+        }
+
+        int applied = stockEngine != null
+                ? adjustInEngine(adjustments, indexByProduct, result)
+                : adjustInTable(adjustments, indexByProduct, result);
+        result.setApplied(applied);
+        result.getRejections().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return result;
+    }
+
+    private int adjustInTable(List<StockAdjustmentRequest> adjustments, Map<Long, Integer> indexByProduct, StockBulkAdjustResultDTO result) {
+        Map<Long, Integer> current = stockJdbcRepository.lockQuantities(indexByProduct.keySet());
+        Map<Long, Integer> deltas = new HashMap<>(indexByProduct.size() * 2);
+        int applied = 0;
+        for (Map.Entry<Long, Integer> entry : indexByProduct.entrySet()) {
+            Long productId = entry.getKey();
+            int index = entry.getValue();
+            Integer quantity = current.get(productId);
+            if (quantity == null) {
+                reject(result, index, productId, Reason.NOT_FOUND, "Stock not found for product ID: " + productId);
+                continue;
+            }
+            StockAdjustmentRequest adjustment = adjustments.get(index);
+            int delta = adjustment.getNewQuantity() != null ? adjustment.getNewQuantity() - quantity : adjustment.getDelta();
+            long newQuantity = (long) quantity + delta;
+            if (newQuantity < 0) {
+                reject(result, index, productId, Reason.NEGATIVE_QUANTITY, "Quantity for product ID " + productId + " would become negative");
+            } else if (newQuantity > Integer.MAX_VALUE) {
+                reject(result, index, productId, Reason.INVALID, "Quantity for product ID " + productId + " would overflow");
+            } else {
+                applied++;
+                if (delta != 0) {
+                    deltas.put(productId, delta);
+                }
+            }
+        }
+        // The rows are locked, so the guard cannot fail here; it only backs up the check above.
+        List<Long> unmatched = stockJdbcRepository.addQuantitiesGuarded(deltas);
+        if (!unmatched.isEmpty()) {
+            throw new IllegalStateException("Locked stock rows changed during bulk adjustment: " + unmatched);
+        }
+        availabilityIndex.adjustAfterCommit(deltas);
+        stockLedger.recordAll(deltas, StockMovementReason.ADJUSTMENT, null);
+        return applied;
+    }
+
+    // The engine owns quantities; like updateStockQuantity, changes go to its counters and are flushed later.
+    private int adjustInEngine(List<StockAdjustmentRequest> adjustments, Map<Long, Integer> indexByProduct, StockBulkAdjustResultDTO result) {
+        Map<Long, Integer> levels = new HashMap<>(indexByProduct.size() * 2);
+        for (Map.Entry<Long, Integer> entry : indexByProduct.entrySet()) {
+            Long productId = entry.getKey();
+            int index = entry.getValue();
+            if (!stockEngine.isTracked(productId)) {
+                reject(result, index, productId, Reason.NOT_FOUND, "Stock not found for product ID: " + productId);
+                continue;
+            }
+            StockAdjustmentRequest adjustment = adjustments.get(index);
+            if (adjustment.getNewQuantity() != null) {
+                stockLedger.record(productId, stockEngine.set(productId, adjustment.getNewQuantity()), StockMovementReason.ADJUSTMENT, null);
+                levels.put(productId, adjustment.getNewQuantity());
+            } else if (stockEngine.tryAdjust(productId, adjustment.getDelta())) {
+                stockLedger.record(productId, adjustment.getDelta(), StockMovementReason.ADJUSTMENT, null);
+                levels.put(productId, stockEngine.available(productId).orElse(0));
+            } else {
+                reject(result, index, productId, Reason.NEGATIVE_QUANTITY, "Quantity for product ID " + productId + " would become negative");
+            }
+        }
+        availabilityIndex.setAfterCommit(levels);
+        return levels.size();
+    }
+
+    private static String invalidAdjustment(StockAdjustmentRequest adjustment) {
+        if (adjustment == null || adjustment.getProductId() == null) {
+            return "Product ID is required";
+        }
+        if ((adjustment.getNewQuantity() == null) == (adjustment.getDelta() == null)) {
+            return "Give exactly one of newQuantity or delta";
+        }
+        if (adjustment.getNewQuantity() != null && adjustment.getNewQuantity() < 0) {
+            return "Quantity cannot be negative";
+        }
+        return null;
+    }
+
+    private static void reject(StockBulkAdjustResultDTO result, int index, Long productId, Reason reason, String message) {
+        result.setRejected(result.getRejected() + 1);
+        result.getRejections().add(new StockBulkAdjustResultDTO.Rejection(index, productId, reason, message));
+    }
+
     // Now returns StockResponseDTO
     @Transactional
     public StockResponseDTO updateReorderLevel(Long productId, Integer newReorderLevel) {
@@ -105,10 +354,16 @@ public class StockService {
 
     @Transactional
     public void deleteStock(Long id) {
-        if (!stockRepository.existsById(id)) {
-            throw new EntityNotFoundException("Stock entry not found with id " + id);
+        Stock stock = stockRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Stock entry not found with id " + id));
+        Long productId = stock.getProduct().getProductId();
+        int remaining = stockEngine != null ? stockEngine.available(productId).orElse(stock.getQuantity()) : stock.getQuantity();
+        stockLedger.record(productId, -remaining, StockMovementReason.REMOVED, null);
+        stockRepository.delete(stock);
+        availabilityIndex.removeAfterCommit(productId);
+        if (stockEngine != null) {
+            stockEngine.untrack(productId);
         }
-        stockRepository.deleteById(id);
     }
 }
 
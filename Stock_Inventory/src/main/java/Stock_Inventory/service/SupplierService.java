@@ -1,6 +1,7 @@
 // src/main/java/Stock_Inventory/service/SupplierService.java
 package Stock_Inventory.service;
 
+import Stock_Inventory.dto.CursorPage;
 import Stock_Inventory.dto.SupplierRequest;
 import Stock_Inventory.model.Supplier;
 import Stock_Inventory.repository.SupplierRepository;
@@ -8,7 +9,6 @@ import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -26,8 +26,8 @@ public class SupplierService {
         return supplierRepository.save(supplier);
     }
 
-    public List<Supplier> getAllSuppliers() {
-        return supplierRepository.findAll();
+    public CursorPage<Supplier> getSupplierPage(long after, int limit) {
+        return CursorPage.of(supplierRepository.findPage(after, CursorPage.seek(limit)), limit, Supplier::getSupplierId);
     }
 
     public Optional<Supplier> getSupplierById(Long id) {
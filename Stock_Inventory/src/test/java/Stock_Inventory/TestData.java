@@ -0,0 +1,82 @@
+package Stock_Inventory;
+
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.model.Customer;
+import Stock_Inventory.model.Product;
+import Stock_Inventory.model.Stock;
+import Stock_Inventory.repository.CustomerRepository;
+import Stock_Inventory.repository.IdempotencyKeyRepository;
+import Stock_Inventory.repository.OrderRepository;
+import Stock_Inventory.repository.ProductRepository;
+import Stock_Inventory.repository.StockRepository;
+import Stock_Inventory.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+// Shared fixture for tests that place orders; picked up by component scan, so any @SpringBootTest can autowire it.
+@Component
+public class TestData {
+
+	@Autowired
+	private IdempotencyKeyRepository idempotencyKeyRepository;
+
+	@Autowired
+	private StockReservationRepository reservationRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	// Empties the order, stock, product and customer tables (and what hangs off them), children first.
+	public void reset() {
+		idempotencyKeyRepository.deleteAll();
+		reservationRepository.deleteAll();
+		orderRepository.deleteAll();
+		stockRepository.deleteAll();
+		productRepository.deleteAll();
+		customerRepository.deleteAll();
+	}
+
+	// The email is unique per call, so tests that do not reset can create customers too.
+	public Long createCustomer(String firstName, String lastName) {
+		Customer customer = new Customer();
+		customer.setFirstName(firstName);
+		customer.setLastName(lastName);
+		customer.setEmail((firstName + "." + lastName).toLowerCase() + "." + UUID.randomUUID() + "@example.com");
+		return customerRepository.save(customer).getCustomerId();
+	}
+
+	// Saves the product and its stock row directly, bypassing ProductService (no cache, index, ledger or outbox side effects).
+	public Long createProduct(String name, double price, int quantity) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(price);
+		product = productRepository.save(product);
+
+		Stock stock = new Stock();
+		stock.setProduct(product);
+		stock.setQuantity(quantity);
+		stock.setReorderLevel(1);
+		stockRepository.save(stock);
+		return product.getProductId();
+	}
+
+	public static OrderCreateRequest order(Long customerId, OrderCreateRequest.OrderItemRequest... lines) {
+		return new OrderCreateRequest(customerId, List.of(lines));
+	}
+
+	public static OrderCreateRequest.OrderItemRequest line(Long productId, int quantity) {
+		return new OrderCreateRequest.OrderItemRequest(productId, quantity);
+	}
+}
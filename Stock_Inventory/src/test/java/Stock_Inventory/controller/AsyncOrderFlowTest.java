@@ -0,0 +1,145 @@
+package Stock_Inventory.controller;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.AsyncOrderStatusDTO;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.repository.StockRepository;
+import Stock_Inventory.service.AsyncOrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 202 -> poll -> outcome, per-partition submission order, and a shutdown that drains instead of dropping.
+@SpringBootTest
+@AutoConfigureMockMvc
+class AsyncOrderFlowTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private AsyncOrderService asyncOrderService;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Async", "Test");
+		productId = testData.createProduct("Queued item", 2.0, 5);
+	}
+
+	@Test
+	void acceptedOrderCanBePolledUntilItCompletes() throws Exception {
+		AsyncOrderStatusDTO created = awaitOutcome(submitOverHttp(3));
+		assertEquals(AsyncOrderStatusDTO.State.CREATED, created.getState());
+		assertNotNull(created.getOrderId());
+		assertEquals(2, stockRepository.findQuantityByProductId(productId).orElseThrow());
+
+		AsyncOrderStatusDTO rejected = awaitOutcome(submitOverHttp(3));
+		assertEquals(AsyncOrderStatusDTO.State.REJECTED, rejected.getState());
+		assertNotNull(rejected.getMessage());
+		assertEquals(2, stockRepository.findQuantityByProductId(productId).orElseThrow());
+	}
+
+	@Test
+	void ordersForOneProductAreAppliedInSubmissionOrder() throws Exception {
+		List<String> trackingIds = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			trackingIds.add(asyncOrderService.submit(request(1)).getTrackingId());
+		}
+
+		// One worker per partition: the first five take the stock, the last three find none left.
+		long previousOrderId = 0;
+		for (int i = 0; i < trackingIds.size(); i++) {
+			AsyncOrderStatusDTO outcome = awaitOutcome(trackingIds.get(i));
+			if (i < 5) {
+				assertEquals(AsyncOrderStatusDTO.State.CREATED, outcome.getState());
+				assertTrue(outcome.getOrderId() > previousOrderId);
+				previousOrderId = outcome.getOrderId();
+			} else {
+				assertEquals(AsyncOrderStatusDTO.State.REJECTED, outcome.getState());
+			}
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	void shutdownDrainsAcceptedOrdersAndRejectsNewOnes() throws Exception {
+		List<String> trackingIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			trackingIds.add(asyncOrderService.submit(request(1)).getTrackingId());
+		}
+
+		asyncOrderService.stop();
+
+		for (String trackingId : trackingIds) {
+			assertEquals(AsyncOrderStatusDTO.State.CREATED, asyncOrderService.getStatus(trackingId).orElseThrow().getState());
+		}
+		assertEquals(0, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		mockMvc.perform(post("/api/orders/async")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(request(1))))
+				.andExpect(status().isServiceUnavailable());
+		assertThrows(RejectedExecutionException.class, () -> asyncOrderService.submit(request(1)));
+	}
+
+	private String submitOverHttp(int quantity) throws Exception {
+		String body = mockMvc.perform(post("/api/orders/async")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(request(quantity))))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists("Location"))
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(body, AsyncOrderStatusDTO.class).getTrackingId();
+	}
+
+	private AsyncOrderStatusDTO awaitOutcome(String trackingId) throws Exception {
+		for (int poll = 0; poll < 500; poll++) {
+			String body = mockMvc.perform(get("/api/orders/async/{trackingId}", trackingId))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			AsyncOrderStatusDTO status = objectMapper.readValue(body, AsyncOrderStatusDTO.class);
+			if (status.getState() != AsyncOrderStatusDTO.State.QUEUED) {
+				return status;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("Order " + trackingId + " still queued");
+	}
+
+	private OrderCreateRequest request(int quantity) {
+		return order(customerId, line(productId, quantity));
+	}
+}
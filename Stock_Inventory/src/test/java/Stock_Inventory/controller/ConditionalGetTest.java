@@ -0,0 +1,107 @@
+package Stock_Inventory.controller;
+
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.dto.ProductQuantityUpdateRequest;
+import Stock_Inventory.repository.ProductRepository;
+import Stock_Inventory.repository.StockJdbcRepository;
+import Stock_Inventory.repository.StockRepository;
+import Stock_Inventory.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A matching If-None-Match must be answered from the version columns alone, and any write must change the ETag.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private StockJdbcRepository stockJdbcRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		stockRepository.deleteAll();
+		productRepository.deleteAll();
+		ProductCreateRequest request = new ProductCreateRequest();
+		request.setName("Dashboard item");
+		request.setPrice(2.5);
+		request.setStockLevel(10);
+		productId = productService.createProduct(request).getProductId();
+	}
+
+	@Test
+	void productAnswers304WithoutLoadingTheEntity() throws Exception {
+		String etag = mockMvc.perform(get("/api/products/{id}", productId))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(get("/api/products/{id}", productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+
+		ProductQuantityUpdateRequest restock = new ProductQuantityUpdateRequest();
+		restock.setQuantityChange(5); // A stock-only write still changes the product's representation
+		productService.updateProductQuantity(productId, restock);
+
+		String changed = mockMvc.perform(get("/api/products/{id}", productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+	}
+
+	@Test
+	void stockByProductIdAnswers304UntilItChanges() throws Exception {
+		String etag = mockMvc.perform(get("/api/stocks/product/{productId}", productId))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/stocks/product/{productId}", productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		stockJdbcRepository.addQuantities(Map.of(productId, -1)); // Plain JDBC, outside Hibernate's versioning
+
+		mockMvc.perform(get("/api/stocks/product/{productId}", productId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/stocks/product/{productId}", 999_999L))
+				.andExpect(status().isNotFound());
+	}
+}
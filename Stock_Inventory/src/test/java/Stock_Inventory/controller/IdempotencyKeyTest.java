@@ -0,0 +1,117 @@
+package Stock_Inventory.controller;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.repository.OrderRepository;
+import Stock_Inventory.repository.StockRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// A retried or concurrent request with the same Idempotency-Key must place one order and deduct stock once.
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyKeyTest {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Retry", "Test");
+		productId = testData.createProduct("Retried item", 4.0, 20);
+	}
+
+	@Test
+	void replayReturnsTheOriginalOrder() throws Exception {
+		MockHttpServletResponse first = placeOrder("replay-key");
+		MockHttpServletResponse second = placeOrder("replay-key");
+
+		assertEquals(201, first.getStatus());
+		assertEquals(200, second.getStatus());
+		assertEquals(orderId(first), orderId(second));
+		assertEquals(1, orderRepository.count());
+		assertEquals(17, stockRepository.findQuantityByProductId(productId).orElseThrow());
+	}
+
+	@Test
+	void concurrentRequestsWithOneKeyPlaceOneOrder() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			responses.add(pool.submit(() -> {
+				start.await();
+				return placeOrder("concurrent-key");
+			}));
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+		Set<Long> orderIds = new HashSet<>();
+		int created = 0;
+		for (Future<MockHttpServletResponse> response : responses) {
+			MockHttpServletResponse result = response.get();
+			assertTrue(result.getStatus() == 201 || result.getStatus() == 200, "status " + result.getStatus());
+			created += result.getStatus() == 201 ? 1 : 0;
+			orderIds.add(orderId(result));
+		}
+		assertEquals(1, created);
+		assertEquals(1, orderIds.size());
+		assertEquals(1, orderRepository.count());
+		assertEquals(17, stockRepository.findQuantityByProductId(productId).orElseThrow());
+	}
+
+	private MockHttpServletResponse placeOrder(String key) throws Exception {
+		String body = objectMapper.writeValueAsString(order(customerId, line(productId, 3)));
+		return mockMvc.perform(post("/api/orders")
+						.header("Idempotency-Key", key)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body))
+				.andReturn().getResponse();
+	}
+
+	private Long orderId(MockHttpServletResponse response) throws Exception {
+		return objectMapper.readTree(response.getContentAsString()).get("orderId").asLong();
+	}
+}
@@ -0,0 +1,58 @@
+package Stock_Inventory.controller;
+
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.StockAdjustmentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bulk endpoints run one transaction per request, so their request size is capped by configuration.
+@SpringBootTest(properties = {"inventory.order-batch.max-size=3", "inventory.stock-bulk-adjust.max-size=3"})
+@AutoConfigureMockMvc
+class RequestSizeLimitTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void orderBatchAboveTheLimitIsRejected() throws Exception {
+		OrderCreateRequest order = order(999_999L, line(1L, 1));
+
+		mockMvc.perform(post("/api/orders/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(Collections.nCopies(4, order))))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/orders/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(Collections.nCopies(3, order))))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void bulkAdjustmentAboveTheLimitIsRejected() throws Exception {
+		StockAdjustmentRequest adjustment = new StockAdjustmentRequest(999_999L, null, 1);
+
+		mockMvc.perform(post("/api/stocks/bulk-adjust")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(Collections.nCopies(4, adjustment))))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/stocks/bulk-adjust")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(Collections.nCopies(3, adjustment))))
+				.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,149 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.dto.ProductQuantityUpdateRequest;
+import Stock_Inventory.dto.StockAdjustmentRequest;
+import Stock_Inventory.dto.StockAvailabilityDTO;
+import Stock_Inventory.dto.StockBulkAdjustResultDTO;
+import Stock_Inventory.dto.StockBulkAdjustResultDTO.Reason;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Every stock mutation path must leave the index equal to the stock table once it commits.
+@SpringBootTest
+class AvailabilityIndexTest {
+
+	@Autowired
+	private AvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Index", "Test");
+
+		ProductCreateRequest request = new ProductCreateRequest();
+		request.setName("Polled item");
+		request.setPrice(3.0);
+		request.setStockLevel(10);
+		productId = productService.createProduct(request).getProductId();
+	}
+
+	@Test
+	void followsEveryMutationPath() {
+		assertIndexMatchesTable(10);
+
+		Long orderId = orderService.createOrder(order(4)).getOrderId();
+		assertIndexMatchesTable(6);
+
+		assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(order(7))); // Rolled back
+		assertIndexMatchesTable(6);
+
+		orderService.createOrders(List.of(order(1), order(2)));
+		assertIndexMatchesTable(3);
+
+		orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED); // Releases the reservation
+		assertIndexMatchesTable(7);
+
+		ProductQuantityUpdateRequest restock = new ProductQuantityUpdateRequest();
+		restock.setQuantityChange(5);
+		productService.updateProductQuantity(productId, restock);
+		assertIndexMatchesTable(12);
+
+		stockService.updateStockQuantity(productId, 20);
+		assertIndexMatchesTable(20);
+
+		stockService.bulkAdjust(List.of(new StockAdjustmentRequest(productId, null, -5)));
+		assertIndexMatchesTable(15);
+
+		stockService.bulkAdjust(List.of(new StockAdjustmentRequest(productId, 9, null)));
+		assertIndexMatchesTable(9);
+	}
+
+	@Test
+	void bulkAdjustRejectsEntriesIndividually() {
+		ProductCreateRequest request = new ProductCreateRequest();
+		request.setName("Counted item");
+		request.setPrice(1.0);
+		request.setStockLevel(2);
+		Long countedId = productService.createProduct(request).getProductId();
+
+		StockBulkAdjustResultDTO result = stockService.bulkAdjust(List.of(
+				new StockAdjustmentRequest(productId, null, 3),
+				new StockAdjustmentRequest(countedId, 40, null),
+				new StockAdjustmentRequest(999_999L, 1, null),
+				new StockAdjustmentRequest(productId, 1, 1)));
+
+		assertEquals(2, result.getApplied());
+		assertEquals(2, result.getRejected());
+		assertEquals(List.of(Reason.NOT_FOUND, Reason.INVALID),
+				result.getRejections().stream().map(StockBulkAdjustResultDTO.Rejection::getReason).toList());
+		assertEquals(List.of(2, 3), result.getRejections().stream().map(StockBulkAdjustResultDTO.Rejection::getIndex).toList());
+		assertIndexMatchesTable(13);
+		assertEquals(40, availabilityIndex.get(countedId));
+
+		result = stockService.bulkAdjust(List.of(new StockAdjustmentRequest(countedId, null, -41)));
+		assertEquals(Reason.NEGATIVE_QUANTITY, result.getRejections().get(0).getReason());
+
+		result = stockService.bulkAdjust(List.of(new StockAdjustmentRequest(productId, null, 1), new StockAdjustmentRequest(productId, 0, null)));
+		assertEquals(0, result.getApplied());
+		assertEquals(2, result.getRejected()); // Ambiguous duplicates are both rejected
+		assertIndexMatchesTable(13);
+		assertEquals(40, stockRepository.findQuantityByProductId(countedId).orElseThrow());
+	}
+
+	@Test
+	void forgetsDeletedProducts() {
+		productService.deleteProduct(productId);
+
+		assertEquals(AvailabilityIndex.UNKNOWN, availabilityIndex.get(productId));
+	}
+
+	@Test
+	void availabilityReportsUnknownProducts() {
+		StockAvailabilityDTO availability = stockService.getAvailability(new long[]{productId, 999_999L});
+
+		assertArrayEquals(new long[]{productId}, availability.getProductIds());
+		assertArrayEquals(new int[]{10}, availability.getAvailable());
+		assertArrayEquals(new long[]{999_999L}, availability.getUnknownProductIds());
+	}
+
+	private void assertIndexMatchesTable(int expected) {
+		assertEquals(expected, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(expected, availabilityIndex.get(productId));
+	}
+
+	private OrderCreateRequest order(int quantity) {
+		return TestData.order(customerId, line(productId, quantity));
+	}
+}
@@ -0,0 +1,101 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.model.Stock;
+import Stock_Inventory.repository.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A stale @Version write must surface as a concurrency failure that ConcurrencyRetry retries, up to its limit.
+@SpringBootTest(properties = {"inventory.retry.max-attempts=3", "inventory.retry.initial-backoff-ms=1", "inventory.retry.max-backoff-ms=5"})
+class ConcurrencyRetryTest {
+
+	@Autowired
+	private ConcurrencyRetry concurrencyRetry;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private TestData testData;
+
+	private TransactionTemplate transactionTemplate;
+	private TransactionTemplate concurrentWriter;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		concurrentWriter = new TransactionTemplate(transactionManager);
+		concurrentWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		testData.reset();
+		productId = testData.createProduct("Contended item", 1.0, 10);
+	}
+
+	@Test
+	void versionConflictIsRetriedAndSucceeds() {
+		double retriesBefore = counter("inventory.concurrency.retries", "conflictOnce");
+		AtomicInteger attempts = new AtomicInteger();
+
+		concurrencyRetry.execute("conflictOnce", () -> setReorderLevel(7, attempts.incrementAndGet() == 1));
+
+		assertEquals(2, attempts.get());
+		assertEquals(7, stockRepository.findByProduct_ProductId(productId).orElseThrow().getReorderLevel());
+		assertEquals(retriesBefore + 1, counter("inventory.concurrency.retries", "conflictOnce"));
+	}
+
+	@Test
+	void givesUpAfterTheConfiguredAttempts() {
+		double exhaustedBefore = counter("inventory.concurrency.retries.exhausted", "conflictAlways");
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThrows(ObjectOptimisticLockingFailureException.class,
+				() -> concurrencyRetry.execute("conflictAlways", () -> setReorderLevel(7, attempts.incrementAndGet() > 0)));
+
+		assertEquals(3, attempts.get());
+		assertEquals(1, stockRepository.findByProduct_ProductId(productId).orElseThrow().getReorderLevel());
+		assertEquals(exhaustedBefore + 1, counter("inventory.concurrency.retries.exhausted", "conflictAlways"));
+	}
+
+	// Loads the stock row, optionally lets another transaction update it first, then writes the stale entity.
+	private Stock setReorderLevel(int reorderLevel, boolean conflict) {
+		return transactionTemplate.execute(status -> {
+			Stock stock = stockRepository.findByProduct_ProductId(productId).orElseThrow();
+			if (conflict) {
+				concurrentWriter.executeWithoutResult(inner ->
+						jdbcTemplate.update("UPDATE stock SET quantity = quantity + 1, version = version + 1 WHERE product_id = ?", productId));
+			}
+			stock.setReorderLevel(reorderLevel);
+			return stockRepository.saveAndFlush(stock);
+		});
+	}
+
+	private double counter(String name, String operation) {
+		Counter counter = meterRegistry.find(name).tag("operation", operation).counter();
+		return counter == null ? 0 : counter.count();
+	}
+}
@@ -0,0 +1,41 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.model.IdGenerators;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Keys inserted while the tables were IDENTITY columns must end up below every id the generators hand out.
+@SpringBootTest
+class IdGeneratorMigrationTest {
+
+	private static final long LEGACY_KEY = 1_000_000L;
+
+	@Autowired
+	private IdGeneratorMigration migration;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void raisesGeneratorAboveExistingKeysAndNeverLowersIt() {
+		jdbcTemplate.update("INSERT INTO product (product_id, name, price, version) VALUES (?, 'Legacy', 1.0, 0)", LEGACY_KEY);
+		try {
+			migration.migrate();
+			assertEquals(LEGACY_KEY + IdGenerators.ALLOCATION_SIZE, nextValue("product"));
+
+			jdbcTemplate.update("UPDATE id_generator SET next_val = ? WHERE sequence_name = 'product'", LEGACY_KEY * 2);
+			migration.migrate();
+			assertEquals(LEGACY_KEY * 2, nextValue("product"));
+		} finally {
+			jdbcTemplate.update("DELETE FROM product WHERE product_id = ?", LEGACY_KEY);
+		}
+	}
+
+	private long nextValue(String segment) {
+		return jdbcTemplate.queryForObject("SELECT next_val FROM id_generator WHERE sequence_name = ?", Long.class, segment);
+	}
+}
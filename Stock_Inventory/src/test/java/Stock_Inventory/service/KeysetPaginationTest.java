@@ -0,0 +1,119 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.LowStockView;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.dto.SupplierRequest;
+import Stock_Inventory.model.Supplier;
+import Stock_Inventory.repository.SupplierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class KeysetPaginationTest {
+
+	@Autowired
+	private SupplierService supplierService;
+
+	@Autowired
+	private SupplierRepository supplierRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private StockService stockService;
+
+	private final List<Long> supplierIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		supplierRepository.deleteAll();
+		supplierIds.clear();
+		for (int i = 0; i < 5; i++) {
+			SupplierRequest request = new SupplierRequest();
+			request.setName("Supplier " + i);
+			request.setContactInfo("supplier" + i + "@example.com");
+			supplierIds.add(supplierService.createSupplier(request).getSupplierId());
+		}
+	}
+
+	@Test
+	void walksEveryRowOnceAndEndsWithoutCursor() {
+		List<Long> seen = new ArrayList<>();
+		long after = CursorPage.after(null);
+		CursorPage<Supplier> page;
+		int pages = 0;
+		do {
+			page = supplierService.getSupplierPage(after, 2);
+			page.getItems().forEach(supplier -> seen.add(supplier.getSupplierId()));
+			pages++;
+			if (page.getNext() != null) {
+				after = page.getNext();
+			}
+		} while (page.getNext() != null);
+
+		assertEquals(supplierIds, seen);
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void fullLastPageHasNoCursor() {
+		CursorPage<Supplier> page = supplierService.getSupplierPage(supplierIds.get(0), 4);
+
+		assertEquals(supplierIds.subList(1, 5), page.getItems().stream().map(Supplier::getSupplierId).toList());
+		assertNull(page.getNext());
+	}
+
+	@Test
+	void limitIsClamped() {
+		assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.limit(null));
+		assertEquals(1, CursorPage.limit(0));
+		assertEquals(CursorPage.MAX_LIMIT, CursorPage.limit(1_000_000));
+		assertNotNull(supplierService.getSupplierPage(0, 1).getNext());
+	}
+
+	@Test
+	void lowStockPagesLargestDeficitFirst() {
+		Set<Long> productIds = new HashSet<>(); // Other tests' stock may share the table
+		int[] levels = {0, 9, 3, 5, 3, 6, 1}; // Reorder level is 5: deficits 5, -, 2, 0, 2, -, 4
+		for (int i = 0; i < levels.length; i++) {
+			ProductCreateRequest request = new ProductCreateRequest();
+			request.setName("Low " + i);
+			request.setPrice(1.0);
+			request.setStockLevel(levels[i]);
+			productIds.add(productService.createProduct(request).getProductId());
+		}
+
+		List<Integer> deficits = new ArrayList<>();
+		List<Long> stockIds = new ArrayList<>();
+		Integer afterDeficit = null;
+		Long after = null;
+		CursorPage<LowStockView> page;
+		do {
+			page = stockService.getLowStockPage(afterDeficit, after, 2);
+			page.getItems().stream().filter(row -> productIds.contains(row.productId())).forEach(row -> {
+				deficits.add(row.deficit());
+				stockIds.add(row.stockId());
+			});
+			if (page.getNext() != null) {
+				afterDeficit = (Integer) page.getNextKey();
+				after = page.getNext();
+			}
+		} while (page.getNext() != null);
+
+		assertEquals(List.of(5, 4, 2, 2, 0), deficits);
+		assertEquals(5, stockIds.stream().distinct().count());
+	}
+}
@@ -0,0 +1,42 @@
+package Stock_Inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+
+	@Test
+	void matchesHashMapUnderRandomOperations() {
+		LongIntHashMap map = new LongIntHashMap(4);
+		Map<Long, Integer> reference = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200_000; i++) {
+			long key = 1 + random.nextInt(5_000);
+			switch (random.nextInt(4)) {
+				case 0 -> {
+					int value = random.nextInt(1_000);
+					map.put(key, value);
+					reference.put(key, value);
+				}
+				case 1 -> {
+					boolean present = reference.containsKey(key);
+					assertEquals(present, map.addTo(key, 3));
+					if (present) {
+						reference.merge(key, 3, Integer::sum);
+					}
+				}
+				case 2 -> assertEquals(reference.remove(key) != null, map.remove(key));
+				default -> assertEquals(reference.getOrDefault(key, -1), map.get(key, -1));
+			}
+		}
+
+		assertEquals(reference.size(), map.size());
+		reference.forEach((key, value) -> assertEquals(value.intValue(), map.get(key, -1)));
+	}
+}
@@ -0,0 +1,70 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderBatchResultDTO;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.repository.OrderRepository;
+import Stock_Inventory.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class OrderBatchIngestionTest {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productA;
+	private Long productB;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Bulk", "Feed");
+		productA = testData.createProduct("Widget", 2.50, 10);
+		productB = testData.createProduct("Gadget", 4.00, 3);
+	}
+
+	@Test
+	void reportsAnOutcomePerOrderAndDeductsOncePerProduct() {
+		List<OrderBatchResultDTO> results = orderService.createOrders(List.of(
+				order(customerId, line(productA, 4), line(productB, 2)),
+				order(customerId, line(productA, 3), line(productA, 3)),
+				order(customerId, line(productB, 2)),
+				order(999_999L, line(productA, 1)),
+				order(customerId, line(productA, 1), line(999_999L, 1)),
+				new OrderCreateRequest(customerId, List.of())));
+
+		assertEquals(OrderBatchResultDTO.Outcome.CREATED, results.get(0).getOutcome());
+		assertEquals(OrderBatchResultDTO.Outcome.CREATED, results.get(1).getOutcome());
+		assertEquals(OrderBatchResultDTO.Outcome.INSUFFICIENT_STOCK, results.get(2).getOutcome());
+		assertEquals(OrderBatchResultDTO.Outcome.NOT_FOUND, results.get(3).getOutcome());
+		assertEquals(OrderBatchResultDTO.Outcome.NOT_FOUND, results.get(4).getOutcome());
+		assertEquals(OrderBatchResultDTO.Outcome.INVALID, results.get(5).getOutcome());
+		assertNotNull(results.get(0).getOrderId());
+
+		assertEquals(0, stockRepository.findQuantityByProductId(productA).orElseThrow());
+		assertEquals(1, stockRepository.findQuantityByProductId(productB).orElseThrow());
+		assertEquals(2, orderRepository.count());
+		assertEquals(18.0, orderService.getOrderById(results.get(0).getOrderId()).orElseThrow().getTotalAmount());
+	}
+}
@@ -0,0 +1,78 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderBatchResultDTO;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OrderResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "inventory.order-export.chunk-size=" + OrderExportTest.CHUNK_SIZE)
+class OrderExportTest {
+
+	static final int CHUNK_SIZE = 50; // Small, so the chunk boundaries are cheap to cross
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productA;
+	private Long productB;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Nightly", "Export");
+		productA = testData.createProduct("Widget", 2.50, 10_000);
+		productB = testData.createProduct("Gadget", 4.00, 10_000);
+	}
+
+	@Test
+	void exportStreamsEveryOrderInIdOrder() {
+		List<OrderBatchResultDTO> results = orderService.createOrders(List.of(
+				order(line(productA, 1)),
+				order(line(productA, 2), line(productB, 1)),
+				order(line(productB, 1))));
+
+		List<OrderResponseDTO> exported = new ArrayList<>();
+		long count = orderService.exportOrders(exported::add);
+
+		assertEquals(3, count);
+		assertEquals(results.stream().map(OrderBatchResultDTO::getOrderId).toList(),
+				exported.stream().map(OrderResponseDTO::getOrderId).toList());
+		assertEquals(2, exported.get(1).getOrderItems().size());
+		assertEquals(9.0, exported.get(1).getTotalAmount());
+	}
+
+	@Test
+	void exportCrossesChunkBoundariesWithoutGapsOrRepeats() {
+		int orders = 2 * CHUNK_SIZE + 1;
+		List<OrderBatchResultDTO> results = orderService.createOrders(
+				Collections.nCopies(orders, order(line(productA, 1), line(productB, 1))));
+
+		List<Long> exported = new ArrayList<>();
+		long count = orderService.exportOrders(order -> {
+			assertEquals(2, order.getOrderItems().size());
+			exported.add(order.getOrderId());
+		});
+
+		assertEquals(orders, count);
+		assertEquals(results.stream().map(OrderBatchResultDTO::getOrderId).toList(), exported);
+	}
+
+	private OrderCreateRequest order(OrderCreateRequest.OrderItemRequest... lines) {
+		return TestData.order(customerId, lines);
+	}
+}
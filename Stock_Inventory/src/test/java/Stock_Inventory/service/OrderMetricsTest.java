@@ -0,0 +1,104 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The SimpleMeterRegistry joins the application's composite registry, so it sees every meter OrderMetrics records.
+@SpringBootTest
+class OrderMetricsTest {
+
+	@TestConfiguration
+	static class Registry {
+		@Bean
+		SimpleMeterRegistry simpleMeterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private SimpleMeterRegistry registry;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Metrics", "Test");
+		productId = testData.createProduct("Measured item", 3.0, 5);
+	}
+
+	@Test
+	void placedOrderRecordsEveryStageAndTheCreatedOutcome() {
+		List<String> stages = List.of("customer_lookup", "product_lookup", "stock_lookup", "stock_deduction",
+				"order_save", "reservation", "idempotency", "convert_to_dto", "commit");
+		Map<String, Long> before = new HashMap<>();
+		stages.forEach(stage -> before.put(stage, stageCount(stage)));
+		long created = createTimerCount("created");
+		long items = itemsCount();
+
+		orderService.createOrder(order(customerId, line(productId, 2)), "metrics-key-" + System.nanoTime());
+
+		for (String stage : stages) {
+			assertEquals(before.get(stage) + 1, stageCount(stage), stage);
+		}
+		assertEquals(created + 1, createTimerCount("created"));
+		assertEquals(items + 1, itemsCount());
+	}
+
+	@Test
+	void rejectedOrdersAreCountedByOutcome() {
+		long created = createTimerCount("created");
+		long insufficient = createTimerCount("insufficient_stock");
+		long notFound = createTimerCount("not_found");
+		long commits = stageCount("commit");
+
+		assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(order(customerId, line(productId, 6))));
+		assertThrows(EntityNotFoundException.class, () -> orderService.createOrder(order(-1L, line(productId, 1))));
+
+		assertEquals(created, createTimerCount("created"));
+		assertEquals(insufficient + 1, createTimerCount("insufficient_stock"));
+		assertEquals(notFound + 1, createTimerCount("not_found"));
+		// Rolled back, so the commit stage never ran.
+		assertEquals(commits, stageCount("commit"));
+	}
+
+	private long stageCount(String stage) {
+		Timer timer = registry.find("inventory.order.create.stage").tags("stage", stage, "items", "1").timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	private long createTimerCount(String outcome) {
+		Timer timer = registry.find("inventory.order.create").tags("outcome", outcome, "items", "1").timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	private long itemsCount() {
+		DistributionSummary summary = registry.find("inventory.order.items").summary();
+		return summary == null ? 0 : summary.count();
+	}
+}
@@ -0,0 +1,159 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.model.Stock;
+import Stock_Inventory.repository.OrderRepository;
+import Stock_Inventory.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderServiceConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS = 400;
+	private static final int INITIAL_STOCK = 150;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Load", "Test");
+		productId = testData.createProduct("Flash sale item", 9.99, INITIAL_STOCK);
+	}
+
+	@Test
+	void concurrentOrdersNeverOversell() throws InterruptedException {
+		AtomicInteger placed = new AtomicInteger();
+		runConcurrently(() -> {
+			orderService.createOrder(order(customerId, line(productId, 1)));
+			placed.incrementAndGet();
+		});
+
+		int remaining = stockRepository.findQuantityByProductId(productId).orElseThrow();
+		assertEquals(INITIAL_STOCK, placed.get());
+		assertEquals(0, remaining);
+		assertEquals(INITIAL_STOCK, orderRepository.count());
+	}
+
+	@Test
+	void guardedDecrementAgainstReadModifyWrite() throws InterruptedException {
+		// Baseline: the previous read-check-save sequence. The stock @Version turns its lost updates
+		// into optimistic lock failures, so fewer attempts succeed, but every success is counted only
+		// after its commit and must match exactly one unit taken from stock.
+		AtomicInteger legacyPlaced = new AtomicInteger();
+		runConcurrently(() -> {
+			transactionTemplate.executeWithoutResult(status -> {
+				Stock stock = stockRepository.findByProduct_ProductId(productId).orElseThrow();
+				if (stock.getQuantity() < 1) {
+					throw new IllegalArgumentException("Insufficient stock");
+				}
+				stock.setQuantity(stock.getQuantity() - 1);
+				stockRepository.save(stock);
+			});
+			legacyPlaced.incrementAndGet();
+		});
+		int legacyRemaining = stockRepository.findQuantityByProductId(productId).orElseThrow();
+
+		transactionTemplate.executeWithoutResult(status -> stockRepository.decrementQuantity(productId, legacyRemaining - INITIAL_STOCK));
+
+		AtomicInteger guardedPlaced = new AtomicInteger();
+		runConcurrently(() -> {
+			transactionTemplate.executeWithoutResult(status -> {
+				if (stockRepository.decrementQuantity(productId, 1) == 0) {
+					throw new IllegalArgumentException("Insufficient stock");
+				}
+			});
+			guardedPlaced.incrementAndGet();
+		});
+		int guardedRemaining = stockRepository.findQuantityByProductId(productId).orElseThrow();
+
+		assertTrue(legacyRemaining >= 0);
+		assertEquals(INITIAL_STOCK - legacyRemaining, legacyPlaced.get());
+		assertEquals(INITIAL_STOCK, guardedPlaced.get());
+		assertEquals(0, guardedRemaining);
+	}
+
+	@Test
+	void overlappingCartsInOppositeOrderDoNotDeadlock() throws Exception {
+		Long otherId = testData.createProduct("Second item", 1.5, INITIAL_STOCK);
+
+		// No retry around createOrder: a deadlock or lock timeout would fail the round.
+		int rounds = 50;
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < rounds; round++) {
+				CyclicBarrier barrier = new CyclicBarrier(2);
+				Future<?> forward = pool.submit(() -> placeAfter(barrier, productId, otherId));
+				Future<?> backward = pool.submit(() -> placeAfter(barrier, otherId, productId));
+				forward.get(30, TimeUnit.SECONDS);
+				backward.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(2 * rounds, orderRepository.count());
+		assertEquals(INITIAL_STOCK - 2 * rounds, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(INITIAL_STOCK - 2 * rounds, stockRepository.findQuantityByProductId(otherId).orElseThrow());
+	}
+
+	private Void placeAfter(CyclicBarrier barrier, Long firstProductId, Long secondProductId) throws Exception {
+		barrier.await();
+		orderService.createOrder(order(customerId, line(firstProductId, 1), line(secondProductId, 1)));
+		return null;
+	}
+
+	private void runConcurrently(Runnable attempt) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < ATTEMPTS; i++) {
+			pool.submit(() -> {
+				try {
+					start.await();
+					attempt.run();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (RuntimeException e) {
+					// Rejected attempts (insufficient stock, lock timeouts) are expected here.
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+	}
+}
@@ -0,0 +1,113 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderBatchResultDTO;
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OrderFilter;
+import Stock_Inventory.dto.OrderResponseDTO;
+import Stock_Inventory.model.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Order reads are built from projections: one query for the headers and one for all of their lines.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderServiceQueryCountTest {
+
+	private static final int ORDERS = 10;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TestData testData;
+
+	private Statistics statistics;
+	private Long customerId;
+	private final List<Long> orderIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		orderIds.clear();
+
+		customerId = testData.createCustomer("Query", "Count");
+		Long productA = testData.createProduct("Bolt", 0.5, 1000);
+		Long productB = testData.createProduct("Nut", 0.25, 1000);
+
+		List<OrderCreateRequest> requests = new ArrayList<>();
+		for (int i = 0; i < ORDERS; i++) {
+			requests.add(order(customerId, line(productA, 2), line(productB, 4)));
+		}
+		orderService.createOrders(requests).stream().map(OrderBatchResultDTO::getOrderId).forEach(orderIds::add);
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void orderPageRunsTwoStatements() {
+		List<OrderResponseDTO> orders = orderService.getOrderPage(0, 100, true).getItems();
+
+		assertEquals(orderIds, orders.stream().map(OrderResponseDTO::getOrderId).toList());
+		orders.forEach(order -> {
+			assertEquals(2, order.getOrderItems().size());
+			assertEquals(2.0, order.getTotalAmount());
+		});
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void getOrderByIdRunsTwoStatements() {
+		OrderResponseDTO order = orderService.getOrderById(orderIds.get(0)).orElseThrow();
+
+		assertEquals(2, order.getOrderItems().size());
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void filteredPagesRunOneStatementEach() {
+		OrderFilter filter = new OrderFilter(customerId, OrderStatus.PENDING, null, LocalDateTime.now().plusDays(1));
+		List<Long> seen = new ArrayList<>();
+		LocalDateTime afterDate = null;
+		Long after = null;
+		CursorPage<OrderResponseDTO> page;
+		int pages = 0;
+		do {
+			page = orderService.getOrderPage(filter, afterDate, after, 4, false);
+			page.getItems().forEach(order -> seen.add(order.getOrderId()));
+			pages++;
+			if (page.getNext() != null) {
+				afterDate = (LocalDateTime) page.getNextKey();
+				after = page.getNext();
+			}
+		} while (page.getNext() != null);
+
+		assertEquals(orderIds, seen);
+		assertEquals(3, pages);
+		assertEquals(pages, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+
+		orderService.updateOrderStatus(orderIds.get(0), OrderStatus.CANCELLED);
+		assertEquals(List.of(orderIds.get(0)), orderService.getOrderPage(new OrderFilter(null, OrderStatus.CANCELLED, null, null), null, null, 100, true)
+				.getItems().stream().map(OrderResponseDTO::getOrderId).toList());
+	}
+}
@@ -0,0 +1,74 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.model.Customer;
+import Stock_Inventory.model.Order;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.repository.CustomerRepository;
+import Stock_Inventory.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A customer_order.status created as enum('PENDING','SHIPPED','DELIVERED') must accept CANCELLED after the migration.
+@SpringBootTest
+class OrderStatusMigrationTest {
+
+	@Autowired
+	private OrderStatusMigration migration;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void widensALegacyEnumColumnSoCancelledOrdersCanBeWritten() {
+		testData.reset();
+		// Recreate the column as schema update left it on MySQL before CANCELLED (H2 models it with a check constraint).
+		List<String> checks = jdbcTemplate.queryForList("SELECT constraint_name FROM information_schema.table_constraints"
+				+ " WHERE table_name = 'customer_order' AND constraint_type = 'CHECK'", String.class);
+		checks.forEach(check -> jdbcTemplate.execute("ALTER TABLE customer_order DROP CONSTRAINT \"" + check + "\""));
+		jdbcTemplate.execute("ALTER TABLE customer_order MODIFY status ENUM('PENDING','SHIPPED','DELIVERED') NOT NULL");
+
+		Customer customer = customerRepository.findById(testData.createCustomer("Legacy", "Schema")).orElseThrow();
+		try {
+			assertThrows(DataIntegrityViolationException.class, () -> orderRepository.save(cancelledOrder(customer)));
+
+			migration.migrate();
+			Long orderId = orderRepository.save(cancelledOrder(customer)).getOrderId();
+			assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+
+			assertNotEquals("enum", dataType().toLowerCase());
+		} finally {
+			testData.reset();
+		}
+	}
+
+	private String dataType() {
+		return jdbcTemplate.queryForObject("SELECT data_type FROM information_schema.columns"
+				+ " WHERE table_name = 'customer_order' AND column_name = 'status'", String.class);
+	}
+
+	private static Order cancelledOrder(Customer customer) {
+		Order order = new Order();
+		order.setCustomer(customer);
+		order.setStatus(OrderStatus.CANCELLED);
+		return order;
+	}
+}
@@ -0,0 +1,64 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderBatchResultDTO;
+import Stock_Inventory.dto.OrderResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class OrderTotalsBackfillTest {
+
+	@Autowired
+	private OrderTotalsBackfill orderTotalsBackfill;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productA;
+	private Long productB;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Legacy", "Rows");
+		productA = testData.createProduct("Widget", 2.50, 10);
+		productB = testData.createProduct("Gadget", 4.00, 3);
+	}
+
+	@Test
+	void backfillFillsTotalsOnOlderRows() {
+		List<OrderBatchResultDTO> results = orderService.createOrders(List.of(
+				order(customerId, line(productA, 2), line(productB, 1)),
+				order(customerId, line(productA, 1))));
+		Long orderId = results.get(0).getOrderId();
+		jdbcTemplate.update("UPDATE customer_order SET total_amount = NULL, item_count = NULL");
+		assertNull(orderService.getOrderPage(0, 10, false).getItems().get(0).getTotalAmount());
+
+		assertEquals(2, orderTotalsBackfill.backfill());
+
+		OrderResponseDTO summary = orderService.getOrderPage(0, 10, false).getItems().get(0);
+		assertEquals(orderId, summary.getOrderId());
+		assertEquals(9.0, summary.getTotalAmount());
+		assertEquals(2, summary.getItemCount());
+		assertNull(summary.getOrderItems());
+		assertEquals(0, orderTotalsBackfill.backfill());
+	}
+}
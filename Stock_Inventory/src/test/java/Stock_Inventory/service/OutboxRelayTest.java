@@ -0,0 +1,146 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.OutboxMessage;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.OutboxEventType;
+import Stock_Inventory.repository.OutboxJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static Stock_Inventory.TestData.line;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The scheduled poll is pushed far out so the test drives the relay itself.
+@SpringBootTest(properties = {
+		"inventory.outbox.publisher.in-memory.enabled=true",
+		"inventory.outbox.poll-interval-ms=3600000"
+})
+class OutboxRelayTest {
+
+	@TestConfiguration
+	static class FlakyPublisherConfig {
+		@Bean
+		FlakyPublisher flakyPublisher() {
+			return new FlakyPublisher();
+		}
+	}
+
+	// Fails while failing is set, like a downstream system that is down.
+	static class FlakyPublisher implements OutboxPublisher {
+		final AtomicBoolean failing = new AtomicBoolean();
+
+		@Override
+		public String name() {
+			return "flaky";
+		}
+
+		@Override
+		public void publish(List<OutboxMessage> batch) {
+			if (failing.get()) {
+				throw new IllegalStateException("Downstream unavailable");
+			}
+		}
+	}
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private InMemoryOutboxPublisher inMemoryPublisher;
+
+	@Autowired
+	private FlakyPublisher flakyPublisher;
+
+	@Autowired
+	private OutboxJdbcRepository outboxRepository;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		outboxRelay.relay(); // Drain events left by other tests sharing the database
+		inMemoryPublisher.clear();
+		flakyPublisher.failing.set(false);
+
+		customerId = testData.createCustomer("Outbox", "Test");
+
+		ProductCreateRequest request = new ProductCreateRequest();
+		request.setName("Published item");
+		request.setPrice(4.0);
+		request.setStockLevel(10);
+		productId = productService.createProduct(request).getProductId();
+	}
+
+	@Test
+	void publishesCommittedEventsInOrderPerAggregate() {
+		Long orderId = orderService.createOrder(order(3)).getOrderId();
+		assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(order(50))); // Rolled back: no events
+		orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+
+		assertEquals(5, outboxRelay.relay());
+
+		List<OutboxMessage> stockEvents = eventsFor("stock", productId);
+		assertEquals(List.of(OutboxEventType.STOCK_CHANGED, OutboxEventType.STOCK_CHANGED, OutboxEventType.STOCK_CHANGED),
+				stockEvents.stream().map(OutboxMessage::eventType).toList());
+		assertTrue(stockEvents.get(1).payload().contains("\"delta\":-3"));
+		assertTrue(stockEvents.get(2).payload().contains("\"reason\":\"ORDER_CANCELLED\""));
+		List<OutboxMessage> orderEvents = eventsFor("order", orderId);
+		assertEquals(List.of(OutboxEventType.ORDER_CREATED, OutboxEventType.ORDER_STATUS_CHANGED),
+				orderEvents.stream().map(OutboxMessage::eventType).toList());
+		assertTrue(orderEvents.get(1).payload().contains("\"to\":\"CANCELLED\""));
+		assertEquals(0, outboxRepository.countPending());
+	}
+
+	@Test
+	void redeliversBatchAfterPublisherFailure() {
+		inMemoryPublisher.clear();
+		flakyPublisher.failing.set(true);
+		orderService.createOrder(order(1));
+
+		assertEquals(0, outboxRelay.relay());
+		assertEquals(3, outboxRepository.countPending()); // Product stock, order, order stock
+		assertEquals(3, meterRegistry.get("inventory.outbox.pending").gauge().value());
+
+		flakyPublisher.failing.set(false);
+		assertEquals(3, outboxRelay.relay());
+		assertEquals(0, meterRegistry.get("inventory.outbox.pending").gauge().value());
+		// Depending on publisher order the in-memory one may have seen the batch twice: at least once, not exactly once.
+		assertEquals(3, inMemoryPublisher.messages().stream().map(OutboxMessage::eventId).distinct().count());
+	}
+
+	private List<OutboxMessage> eventsFor(String aggregateType, Long aggregateId) {
+		return inMemoryPublisher.messages().stream()
+				.filter(message -> message.aggregateType().equals(aggregateType) && message.aggregateId() == aggregateId)
+				.toList();
+	}
+
+	private OrderCreateRequest order(int quantity) {
+		return TestData.order(customerId, line(productId, quantity));
+	}
+}
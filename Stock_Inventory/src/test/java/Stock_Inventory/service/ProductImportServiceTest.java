@@ -0,0 +1,94 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.ProductImportReportDTO;
+import Stock_Inventory.model.Product;
+import Stock_Inventory.model.Stock;
+import Stock_Inventory.repository.ProductRepository;
+import Stock_Inventory.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A chunk size of 2 makes the small CSVs below span several chunk transactions.
+@SpringBootTest(properties = "inventory.import.chunk-size=2")
+class ProductImportServiceTest {
+
+	@Autowired
+	private ProductImportService productImportService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private AvailabilityIndex availabilityIndex;
+
+	@Test
+	void importsValidRowsAndReportsInvalidOnesByLine() throws Exception {
+		String tag = UUID.randomUUID().toString().substring(0, 8);
+		String csv = "\uFEFFname,description,price,stock,reorder\r\n"
+				+ "Widget " + tag + ",Plain,9.99,10,3\r\n"
+				+ "Gadget " + tag + ",\"Has a comma, a \"\"quote\"\"\nand a newline\",19.5,0\r\n"
+				+ "Broken " + tag + ",Bad price,abc,1,1\r\n"
+				+ "\r\n"
+				+ "Negative " + tag + ",,5,-1,1\r\n"
+				+ ",No name,5,1,1\r\n"
+				+ "Short " + tag + ",Missing stock,5\r\n"
+				+ "Gizmo " + tag + ",,1.25,7,2";
+
+		ProductImportReportDTO report = productImportService.importProducts(new StringReader(csv));
+
+		assertEquals(7, report.getRowsRead());
+		assertEquals(3, report.getImported());
+		assertEquals(4, report.getRejected());
+		assertEquals(List.of(5, 7, 8, 9), report.getErrors().stream().map(ProductImportReportDTO.RowError::getLine).toList());
+
+		Map<String, Product> imported = productRepository.findAll().stream()
+				.filter(product -> product.getName().endsWith(tag))
+				.collect(Collectors.toMap(Product::getName, Function.identity()));
+		assertEquals(3, imported.size());
+		Product gadget = imported.get("Gadget " + tag);
+		assertEquals("Has a comma, a \"quote\"\nand a newline", gadget.getDescription());
+		assertEquals(19.5, gadget.getPrice());
+
+		Stock gadgetStock = stockRepository.findByProduct_ProductId(gadget.getProductId()).orElseThrow();
+		assertEquals(0, gadgetStock.getQuantity());
+		assertEquals(5, gadgetStock.getReorderLevel()); // Defaulted
+		Stock widgetStock = stockRepository.findByProduct_ProductId(imported.get("Widget " + tag).getProductId()).orElseThrow();
+		assertEquals(10, widgetStock.getQuantity());
+		assertEquals(3, widgetStock.getReorderLevel());
+
+		for (Product product : imported.values()) {
+			int quantity = stockRepository.findByProduct_ProductId(product.getProductId()).orElseThrow().getQuantity();
+			assertEquals(quantity, availabilityIndex.get(product.getProductId()));
+		}
+	}
+
+	@Test
+	void stopsAtMalformedRecordButKeepsEarlierRows() throws Exception {
+		String tag = UUID.randomUUID().toString().substring(0, 8);
+		String csv = "First " + tag + ",,1,1\n"
+				+ "Second " + tag + ",\"never closed,2,2\n"
+				+ "Third " + tag + ",,3,3\n";
+
+		ProductImportReportDTO report = productImportService.importProducts(new StringReader(csv));
+
+		assertEquals(1, report.getImported());
+		assertEquals(1, report.getRejected());
+		assertEquals(2, report.getErrors().get(0).getLine());
+		assertTrue(report.getErrors().get(0).getMessage().startsWith("Unterminated quoted field"));
+		assertEquals(1, productRepository.findAll().stream().filter(product -> product.getName().endsWith(tag)).count());
+	}
+}
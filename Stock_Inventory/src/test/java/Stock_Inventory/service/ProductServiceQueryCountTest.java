@@ -0,0 +1,145 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.dto.CursorPage;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.dto.ProductQuantityUpdateRequest;
+import Stock_Inventory.dto.ProductUpdateRequest;
+import Stock_Inventory.model.Product;
+import Stock_Inventory.repository.ProductRepository;
+import Stock_Inventory.repository.StockRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Guards against the per-product stock lookups (N+1) coming back on the product read paths,
+// and checks that the catalog cache never serves a stale stock level.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductServiceQueryCountTest {
+
+	private static final int PRODUCTS = 20;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private ProductCatalogCache productCatalogCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private Long firstProductId;
+
+	@BeforeEach
+	void setUp() {
+		stockRepository.deleteAll();
+		productRepository.deleteAll();
+		for (int i = 0; i < PRODUCTS; i++) {
+			ProductCreateRequest request = new ProductCreateRequest();
+			request.setName("Product " + i);
+			request.setDescription("Query count fixture");
+			request.setPrice(1.0 + i);
+			request.setStockLevel(i);
+			Product product = productService.createProduct(request);
+			if (firstProductId == null || product.getProductId() < firstProductId) {
+				firstProductId = product.getProductId();
+			}
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void productPageRunsOneStatement() {
+		List<Product> products = productService.getProductPage(0, 100).getItems();
+
+		assertEquals(PRODUCTS, products.size());
+		products.forEach(product -> assertEquals(Integer.valueOf(product.getName().substring("Product ".length())), product.getStockLevel()));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void getProductByIdRunsOneStatement() {
+		Product product = productService.getProductById(firstProductId).orElseThrow();
+
+		assertEquals(0, product.getStockLevel());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void cachedProductOnlyReadsItsStockLevel() {
+		productService.getProductById(firstProductId);
+		ProductQuantityUpdateRequest restock = new ProductQuantityUpdateRequest();
+		restock.setQuantityChange(7);
+		productService.updateProductQuantity(firstProductId, restock);
+		statistics.clear();
+
+		Product product = productService.getProductById(firstProductId).orElseThrow();
+
+		assertEquals(7, product.getStockLevel()); // Stock level is never served from the cache
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void updateEvictsTheCachedProduct() {
+		productService.getProductById(firstProductId);
+		ProductUpdateRequest request = new ProductUpdateRequest();
+		request.setName("Renamed");
+		request.setDescription("Updated");
+		request.setPrice(9.99);
+		productService.updateProduct(firstProductId, request);
+
+		assertEquals("Renamed", productService.getProductById(firstProductId).orElseThrow().getName());
+		assertEquals("Renamed", productService.getProductPage(0, 100).getItems().get(0).getName());
+	}
+
+	@Test
+	void fillThatLoadedBeforeAnUpdateIsNotCached() {
+		// A reader loads the old row and page, then an update commits and evicts before the reader puts them.
+		long generation = productCatalogCache.generation();
+		Product stale = productRepository.findById(firstProductId).orElseThrow();
+		CursorPage<Product> stalePage = new CursorPage<>(List.of(stale), null);
+		ProductUpdateRequest request = new ProductUpdateRequest();
+		request.setName("Renamed");
+		request.setDescription("Updated");
+		request.setPrice(9.99);
+		productService.updateProduct(firstProductId, request);
+
+		productCatalogCache.put(stale, generation);
+		productCatalogCache.putPage(0, 100, stalePage, generation);
+
+		assertNull(productCatalogCache.get(firstProductId));
+		assertNull(productCatalogCache.getPage(0, 100));
+		assertEquals("Renamed", productService.getProductById(firstProductId).orElseThrow().getName());
+		assertEquals("Renamed", productService.getProductPage(0, 100).getItems().get(0).getName());
+	}
+
+	@Test
+	void updateProductRunsOneSelectAndOneUpdate() {
+		ProductUpdateRequest request = new ProductUpdateRequest();
+		request.setName("Renamed");
+		request.setDescription("Updated");
+		request.setPrice(9.99);
+
+		Product product = productService.updateProduct(firstProductId, request);
+
+		assertEquals("Renamed", product.getName());
+		assertEquals(0, product.getStockLevel());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+}
@@ -0,0 +1,117 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.dto.OrderCreateRequest;
+import Stock_Inventory.dto.ProductCreateRequest;
+import Stock_Inventory.dto.ProductQuantityUpdateRequest;
+import Stock_Inventory.dto.StockAdjustmentRequest;
+import Stock_Inventory.dto.StockLedgerView;
+import Stock_Inventory.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// With no settle delay a snapshot can checkpoint right up to the movements the test just made.
+@SpringBootTest(properties = "inventory.ledger.snapshot-settle-seconds=0")
+class StockLedgerTest {
+
+	@Autowired
+	private StockLedger stockLedger;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private StockService stockService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		customerId = testData.createCustomer("Ledger", "Test");
+
+		ProductCreateRequest request = new ProductCreateRequest();
+		request.setName("Audited item");
+		request.setPrice(2.0);
+		request.setStockLevel(10);
+		productId = productService.createProduct(request).getProductId();
+	}
+
+	@Test
+	void everyMutationPathIsRecorded() {
+		Long orderId = orderService.createOrder(order(4)).getOrderId();
+		assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(order(50))); // Rolled back, not recorded
+		orderService.createOrders(List.of(order(1)));
+		orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+		ProductQuantityUpdateRequest restock = new ProductQuantityUpdateRequest();
+		restock.setQuantityChange(3);
+		productService.updateProductQuantity(productId, restock);
+		stockService.updateStockQuantity(productId, 20);
+		stockService.bulkAdjust(List.of(new StockAdjustmentRequest(productId, null, -2)));
+
+		assertEquals(List.of("INITIAL:10", "ORDER:-4", "ORDER:-1", "ORDER_CANCELLED:4", "ADJUSTMENT:3", "ADJUSTMENT:8", "ADJUSTMENT:-2"),
+				jdbcTemplate.queryForList("SELECT CONCAT(reason, ':', delta) FROM stock_movement WHERE product_id = ? ORDER BY movement_id", String.class, productId));
+		StockLedgerView ledger = stockService.getLedgerQuantity(productId, null).orElseThrow();
+		assertEquals(18, ledger.ledgerQuantity());
+		assertEquals(18, ledger.stockQuantity());
+		assertEquals(0, ledger.drift());
+
+		Long stockId = jdbcTemplate.queryForObject("SELECT stock_id FROM stock WHERE product_id = ?", Long.class, productId);
+		stockService.deleteStock(stockId);
+		assertEquals(0, stockService.getLedgerQuantity(productId, null).orElseThrow().ledgerQuantity());
+	}
+
+	@Test
+	void quantityAsOfUsesSnapshotsAndLaterMovements() throws InterruptedException {
+		orderService.createOrder(order(3));
+		LocalDateTime beforeSnapshot = pause();
+		assertTrue(stockLedger.snapshot() > 0);
+		LocalDateTime snapshotted = pause();
+
+		stockService.updateStockQuantity(productId, 30);
+		LocalDateTime afterRestock = pause();
+		orderService.createOrder(order(5));
+
+		assertEquals(7, jdbcTemplate.queryForObject("SELECT quantity FROM stock_snapshot WHERE product_id = ?", Integer.class, productId));
+		assertEquals(7, stockLedger.quantityAsOf(productId, beforeSnapshot).orElseThrow());
+		assertEquals(7, stockLedger.quantityAsOf(productId, snapshotted).orElseThrow());
+		assertEquals(30, stockLedger.quantityAsOf(productId, afterRestock).orElseThrow());
+		assertEquals(25, stockLedger.quantityAsOf(productId, LocalDateTime.now()).orElseThrow());
+		assertTrue(stockLedger.quantityAsOf(productId, LocalDateTime.of(2000, 1, 1, 0, 0)).isEmpty());
+
+		assertTrue(stockLedger.snapshot() > 0);
+		assertEquals(25, stockLedger.quantityAsOf(productId, LocalDateTime.now()).orElseThrow());
+	}
+
+	// Keeps the timestamps on either side of the returned instant apart.
+	private static LocalDateTime pause() throws InterruptedException {
+		Thread.sleep(5);
+		LocalDateTime now = LocalDateTime.now();
+		Thread.sleep(5);
+		return now;
+	}
+
+	private OrderCreateRequest order(int quantity) {
+		return TestData.order(customerId, line(productId, quantity));
+	}
+}
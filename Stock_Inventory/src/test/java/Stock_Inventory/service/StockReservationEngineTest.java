@@ -0,0 +1,121 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "inventory.engine.in-memory.enabled=true")
+class StockReservationEngineTest {
+
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS = 4_000;
+	private static final int INITIAL_STOCK = 3_000;
+
+	@Autowired
+	private StockReservationEngine stockEngine;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Engine", "Test");
+		productId = testData.createProduct("Flash sale item", 19.99, INITIAL_STOCK);
+		stockEngine.reload();
+	}
+
+	@Test
+	void ordersReserveInMemoryAndFlushToDatabase() throws InterruptedException {
+		AtomicInteger placed = new AtomicInteger();
+		int attempts = INITIAL_STOCK / 10 + 50;
+		runConcurrently(attempts, () -> {
+			orderService.createOrder(order(customerId, line(productId, 10)));
+			placed.incrementAndGet();
+		});
+
+		assertEquals(INITIAL_STOCK / 10, placed.get());
+		assertEquals(0, stockEngine.available(productId).orElseThrow());
+
+		stockEngine.flush();
+		assertEquals(0, stockRepository.findQuantityByProductId(productId).orElseThrow());
+	}
+
+	@Test
+	void engineReservesExactlyWhatTheJpaPathReserves() throws InterruptedException {
+		// Over-subscribed on both paths: every unit is taken exactly once, and nothing beyond the stock.
+		AtomicInteger jpaReserved = new AtomicInteger();
+		runConcurrently(ATTEMPTS, () -> {
+			Integer updated = transactionTemplate.execute(status -> stockRepository.decrementQuantity(productId, 1));
+			if (updated != null && updated > 0) {
+				jpaReserved.incrementAndGet();
+			}
+		});
+		assertEquals(INITIAL_STOCK, jpaReserved.get());
+		assertEquals(0, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		transactionTemplate.executeWithoutResult(status -> stockRepository.decrementQuantity(productId, -INITIAL_STOCK));
+		stockEngine.reload();
+
+		assertEquals(INITIAL_STOCK, stockEngine.available(productId).orElseThrow());
+
+		AtomicInteger engineReserved = new AtomicInteger();
+		runConcurrently(ATTEMPTS, () -> {
+			if (stockEngine.tryAdjust(productId, -1)) {
+				engineReserved.incrementAndGet();
+			}
+		});
+		assertEquals(INITIAL_STOCK, engineReserved.get());
+		assertEquals(0, stockEngine.available(productId).orElseThrow());
+
+		stockEngine.flush();
+		assertEquals(0, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(0, stockEngine.available(productId).orElseThrow());
+	}
+
+	private void runConcurrently(int attempts, Runnable attempt) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < attempts; i++) {
+			pool.submit(() -> {
+				try {
+					start.await();
+					attempt.run();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (RuntimeException e) {
+					// Rejected attempts (insufficient stock) are expected once the item sells out.
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+	}
+}
@@ -0,0 +1,116 @@
+package Stock_Inventory.service;
+
+import Stock_Inventory.TestData;
+import Stock_Inventory.model.OrderStatus;
+import Stock_Inventory.model.ReservationStatus;
+import Stock_Inventory.model.StockReservation;
+import Stock_Inventory.repository.OrderRepository;
+import Stock_Inventory.repository.StockRepository;
+import Stock_Inventory.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static Stock_Inventory.TestData.line;
+import static Stock_Inventory.TestData.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StockReservationServiceTest {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private StockReservationService stockReservationService;
+
+	@Autowired
+	private StockReservationRepository reservationRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private StockRepository stockRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	private Long customerId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset();
+		customerId = testData.createCustomer("Reserve", "Test");
+		productId = testData.createProduct("Held item", 5.0, 10);
+	}
+
+	@Test
+	void expiredReservationsReturnStockAndCancelTheOrder() {
+		Long orderId = placeOrder(4);
+		assertEquals(6, stockRepository.findQuantityByProductId(productId).orElseThrow());
+
+		expireReservations();
+		stockReservationService.sweepExpired();
+
+		assertEquals(10, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+		assertThrows(IllegalStateException.class, () -> orderService.updateOrderStatus(orderId, OrderStatus.SHIPPED));
+	}
+
+	@Test
+	void shippingCommitsTheReservationSoTheSweeperLeavesItAlone() {
+		Long orderId = placeOrder(4);
+		orderService.updateOrderStatus(orderId, OrderStatus.SHIPPED);
+
+		expireReservations();
+		stockReservationService.sweepExpired();
+
+		assertEquals(6, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(ReservationStatus.COMMITTED, reservationRepository.findAll().get(0).getStatus());
+	}
+
+	@Test
+	void cancellingReleasesStockImmediately() {
+		Long orderId = placeOrder(3);
+		orderService.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+
+		assertEquals(10, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(ReservationStatus.RELEASED, reservationRepository.findAll().get(0).getStatus());
+	}
+
+	@Test
+	void deletingAPendingOrderReturnsItsStock() {
+		Long orderId = placeOrder(4);
+		orderService.deleteOrder(orderId);
+
+		assertEquals(10, stockRepository.findQuantityByProductId(productId).orElseThrow());
+		assertEquals(ReservationStatus.RELEASED, reservationRepository.findAll().get(0).getStatus());
+		assertEquals(List.of("ORDER:-4", "ORDER_CANCELLED:4"), jdbcTemplate.queryForList(
+				"SELECT CONCAT(reason, ':', delta) FROM stock_movement WHERE order_id = ? ORDER BY movement_id", String.class, orderId));
+
+		expireReservations();
+		stockReservationService.sweepExpired();
+		assertEquals(10, stockRepository.findQuantityByProductId(productId).orElseThrow());
+	}
+
+	private Long placeOrder(int quantity) {
+		return orderService.createOrder(order(customerId, line(productId, quantity))).getOrderId();
+	}
+
+	private void expireReservations() {
+		List<StockReservation> reservations = reservationRepository.findAll();
+		reservations.forEach(r -> r.setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+		reservationRepository.saveAll(reservations);
+	}
+}